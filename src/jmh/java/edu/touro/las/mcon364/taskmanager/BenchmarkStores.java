@@ -0,0 +1,26 @@
+package edu.touro.las.mcon364.taskmanager;
+
+/**
+ * The {@link TaskStore} backends the registry benchmarks compare, by the name their
+ * {@code store} parameter uses.
+ */
+final class BenchmarkStores {
+
+    private BenchmarkStores() {}
+
+    /**
+     * Returns a new, empty store of the named kind for about {@code size} tasks. The
+     * cache holds a tenth of them in front of an off-heap store, so the benchmarks'
+     * uniform key walks show its miss cost rather than a best case.
+     */
+    static TaskStore create(String store, int size) {
+        return switch (store) {
+            case "concurrent" -> new ConcurrentTaskStore();
+            case "open-addressing" -> new OpenAddressingTaskStore();
+            case "off-heap" -> new OffHeapTaskStore();
+            case "versioned" -> new VersionedTaskStore();
+            case "caching" -> new CachingTaskStore(new OffHeapTaskStore(), Math.max(1024, size / 10));
+            default -> throw new IllegalArgumentException("Unknown store: " + store);
+        };
+    }
+}
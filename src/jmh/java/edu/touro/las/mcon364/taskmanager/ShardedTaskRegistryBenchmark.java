@@ -0,0 +1,118 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of the sharded registry as the shard count grows, with eight
+ * producer threads. Compare the {@code shards} results to see how close to linear
+ * the scaling is on the machine at hand.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ShardedTaskRegistryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Sharded {
+        @Param({"1", "2", "4", "8"})
+        int shards;
+
+        @Param({"100000"})
+        int size;
+
+        ShardedTaskRegistry registry;
+        // Per task: the update to the next priority and the one back, used in turn
+        UpdateTaskCommand[][] updates;
+        byte[] turns;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            registry = new ShardedTaskRegistry(shards);
+            updates = new UpdateTaskCommand[2][size];
+            turns = new byte[size];
+            List<Command> adds = new ArrayList<>(size);
+            Priority[] priorities = Priority.values();
+            for (int i = 0; i < size; i++) {
+                String name = "task-" + i;
+                TaskRegistry shard = registry.registryFor(name);
+                adds.add(new AddTaskCommand(shard, new Task(name, priorities[i % priorities.length])));
+                updates[0][i] = new UpdateTaskCommand(shard, name, priorities[(i + 1) % priorities.length]);
+                updates[1][i] = new UpdateTaskCommand(shard, name, priorities[i % priorities.length]);
+            }
+            registry.submitAll(adds).join();
+        }
+
+        /**
+         * Returns an update that changes task {@code i}'s priority, alternating between
+         * two, so the benchmarks do not measure the no-change path. The turn is not
+         * synchronized; a lost flip only repeats one no-change update.
+         */
+        UpdateTaskCommand update(int i) {
+            return updates[turns[i] ^= 1][i];
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            registry.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        @Setup(Level.Trial)
+        public void start() {
+            next = (int) (Thread.currentThread().threadId() * 7919);
+        }
+
+        int next(int bound) {
+            next = (next + 0x9E3779B9) & Integer.MAX_VALUE;
+            return next % bound;
+        }
+    }
+
+    /**
+     * Batches of 256 updates, so each shard's writer applies many commands per hand-off.
+     */
+    @Benchmark
+    @Threads(8)
+    public List<CommandResult> submitAllUpdates(Sharded state, Cursor cursor) {
+        List<Command> batch = new ArrayList<>(256);
+        for (int i = 0; i < 256; i++) {
+            batch.add(state.update(cursor.next(state.size)));
+        }
+        return state.registry.submitAll(batch).join();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void runUpdate(Sharded state, Cursor cursor) {
+        state.registry.run(state.update(cursor.next(state.size)));
+    }
+
+    @Benchmark
+    public Map<String, Task> getAll(Sharded state) {
+        return state.registry.getAll();
+    }
+}
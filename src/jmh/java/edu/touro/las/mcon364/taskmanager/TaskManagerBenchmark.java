@@ -0,0 +1,243 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskManager#run} dispatch for each sealed {@link Command} subtype on each
+ * {@link TaskStore} backend, and
+ * {@link UpdateTaskCommand#execute} alone and under multi-thread contention. The
+ * {@link CommandRing} benchmarks are best read with {@code -prof gc}, next to the ones
+ * that build a new command per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class TaskManagerBenchmark {
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    @State(Scope.Benchmark)
+    public static class Manager {
+        @Param({"1000", "100000", "1000000", "10000000"})
+        int size;
+
+        @Param({"concurrent", "open-addressing", "off-heap", "versioned", "caching"})
+        String store;
+
+        TaskRegistry registry;
+        TaskManager manager;
+        AddTaskCommand[] adds;
+        RemoveTaskCommand[] removes;
+        UpdateTaskCommand[] updates;
+        ChangeStatusCommand[] statusChanges;
+        // Per task: the commands that put it back, and which of the pair runs next
+        UpdateTaskCommand[] updatesBack;
+        ChangeStatusCommand[] statusChangesBack;
+        byte[] updateTurns;
+        byte[] statusTurns;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            registry = new TaskRegistry(BenchmarkStores.create(store, size));
+            manager = new TaskManager(registry);
+            adds = new AddTaskCommand[size];
+            removes = new RemoveTaskCommand[size];
+            updates = new UpdateTaskCommand[size];
+            statusChanges = new ChangeStatusCommand[size];
+            updatesBack = new UpdateTaskCommand[size];
+            statusChangesBack = new ChangeStatusCommand[size];
+            updateTurns = new byte[size];
+            statusTurns = new byte[size];
+            Priority[] priorities = Priority.values();
+            Status[] statuses = Status.values();
+            for (int i = 0; i < size; i++) {
+                String name = "task-" + i;
+                Task task = new Task(name, priorities[i % priorities.length]);
+                registry.add(task);
+                adds[i] = new AddTaskCommand(registry, task);
+                removes[i] = new RemoveTaskCommand(registry, name);
+                updates[i] = new UpdateTaskCommand(registry, name, priorities[(i + 1) % priorities.length]);
+                statusChanges[i] = new ChangeStatusCommand(registry, name, statuses[(i + 1) % statuses.length]);
+                updatesBack[i] = new UpdateTaskCommand(registry, name, task.priority());
+                statusChangesBack[i] = new ChangeStatusCommand(registry, name, Status.TODO);
+            }
+        }
+
+        /**
+         * Returns an update that changes task {@code i}'s priority, alternating between
+         * two, so the benchmarks do not measure the no-change path. The turn is not
+         * synchronized; a lost flip only repeats one no-change update.
+         */
+        UpdateTaskCommand update(int i) {
+            return (updateTurns[i] ^= 1) == 1 ? updates[i] : updatesBack[i];
+        }
+
+        /**
+         * Returns the priority to update task {@code i} to, alternating like {@link #update},
+         * for benchmarks that do not use the prebuilt commands.
+         */
+        Priority updatePriority(int i) {
+            return PRIORITIES[((updateTurns[i] ^= 1) == 1 ? i + 1 : i) % PRIORITIES.length];
+        }
+
+        ChangeStatusCommand statusChange(int i) {
+            return (statusTurns[i] ^= 1) == 1 ? statusChanges[i] : statusChangesBack[i];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        @Setup(Level.Trial)
+        public void start() {
+            next = (int) (Thread.currentThread().threadId() * 7919);
+        }
+
+        int next(int bound) {
+            next = (next + 0x9E3779B9) & Integer.MAX_VALUE;
+            return next % bound;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Ring {
+        CommandRing ring;
+        int[] ids;
+        // Target priorities of the current burst's tasks, reused so the ring path allocates nothing
+        Priority[] targets = new Priority[8];
+
+        @Setup(Level.Trial)
+        public void intern(Manager state) {
+            ring = state.manager.commandRing(64);
+            ids = new int[state.size];
+            for (int i = 0; i < state.size; i++) {
+                ids[i] = ring.nameId("task-" + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public void runAdd(Manager state, Cursor cursor) {
+        state.manager.run(state.adds[cursor.next(state.size)]);
+    }
+
+    /**
+     * Remove paired with the add that restores the task, so the registry size stays fixed.
+     */
+    @Benchmark
+    public void runRemoveThenAdd(Manager state, Cursor cursor) {
+        int i = cursor.next(state.size);
+        state.manager.run(state.removes[i]);
+        state.manager.run(state.adds[i]);
+    }
+
+    @Benchmark
+    public void runUpdate(Manager state, Cursor cursor) {
+        state.manager.run(state.update(cursor.next(state.size)));
+    }
+
+    @Benchmark
+    public void runChangeStatus(Manager state, Cursor cursor) {
+        state.manager.run(state.statusChange(cursor.next(state.size)));
+    }
+
+    /**
+     * A burst of 64 updates spread over 8 tasks, the ingest pattern coalescing targets.
+     * Each burst moves its tasks to the other of their two priorities, so every burst
+     * changes something.
+     */
+    @Benchmark
+    public List<CommandResult> runAllUpdateBurst(Manager state, Cursor cursor) {
+        return state.manager.runAll(burst(state, cursor));
+    }
+
+    @Benchmark
+    public List<CommandResult> runCoalescedUpdateBurst(Manager state, Cursor cursor) {
+        return state.manager.runCoalesced(burst(state, cursor));
+    }
+
+    private static List<UpdateTaskCommand> burst(Manager state, Cursor cursor) {
+        int base = cursor.next(state.size - 8);
+        UpdateTaskCommand[] updates = new UpdateTaskCommand[8];
+        for (int j = 0; j < updates.length; j++) {
+            updates[j] = state.update(base + j);
+        }
+        List<UpdateTaskCommand> burst = new ArrayList<>(64);
+        for (int i = 0; i < 64; i++) {
+            burst.add(updates[i & 7]);
+        }
+        return burst;
+    }
+
+    /**
+     * A burst of 64 updates built as new commands, as a caller without prebuilt ones must.
+     */
+    @Benchmark
+    public List<CommandResult> runAllNewUpdateBurst(Manager state, Cursor cursor) {
+        int base = cursor.next(state.size - 8);
+        Priority[] targets = new Priority[8];
+        for (int j = 0; j < targets.length; j++) {
+            targets[j] = state.updatePriority(base + j);
+        }
+        List<UpdateTaskCommand> burst = new ArrayList<>(64);
+        for (int i = 0; i < 64; i++) {
+            int task = base + (i & 7);
+            burst.add(new UpdateTaskCommand(state.registry, "task-" + task, targets[i & 7]));
+        }
+        return state.manager.runAll(burst);
+    }
+
+    /**
+     * The same burst written into a {@link CommandRing}.
+     */
+    @Benchmark
+    public int ringUpdateBurst(Manager state, Ring ring, Cursor cursor) {
+        int base = cursor.next(state.size - 8);
+        Priority[] targets = ring.targets;
+        for (int j = 0; j < targets.length; j++) {
+            targets[j] = state.updatePriority(base + j);
+        }
+        for (int i = 0; i < 64; i++) {
+            ring.ring.update(ring.ids[base + (i & 7)], targets[i & 7]);
+        }
+        return ring.ring.flush();
+    }
+
+    @Benchmark
+    public void executeUpdate(Manager state, Cursor cursor) {
+        state.update(cursor.next(state.size)).execute();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void executeUpdateContended(Manager state, Cursor cursor) {
+        state.update(cursor.next(state.size)).execute();
+    }
+
+    /**
+     * Every thread updates the same task, the worst case for the stripe locks.
+     */
+    @Benchmark
+    @Threads(4)
+    public void executeUpdateSameTask(Manager state) {
+        state.update(0).execute();
+    }
+}
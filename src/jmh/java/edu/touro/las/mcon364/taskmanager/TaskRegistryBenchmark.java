@@ -0,0 +1,171 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry hot paths at sizes from 1K to 10M tasks, on each {@link TaskStore} backend.
+ * The 10M case needs a large heap, hence the fork settings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class TaskRegistryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Registry {
+        @Param({"1000", "100000", "1000000", "10000000"})
+        int size;
+
+        @Param({"concurrent", "open-addressing", "off-heap", "versioned", "caching"})
+        String store;
+
+        TaskRegistry registry;
+        String[] names;
+        Task[] tasks;
+        // Per task: the same task at the next priority, and which of the pair goes in next
+        Task[] changed;
+        byte[] turns;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            registry = new TaskRegistry(BenchmarkStores.create(store, size));
+            names = new String[size];
+            tasks = new Task[size];
+            changed = new Task[size];
+            turns = new byte[size];
+            Priority[] priorities = Priority.values();
+            for (int i = 0; i < size; i++) {
+                names[i] = "task-" + i;
+                tasks[i] = new Task(names[i], priorities[i % priorities.length]);
+                changed[i] = new Task(names[i], priorities[(i + 1) % priorities.length]);
+                registry.add(tasks[i]);
+            }
+        }
+    }
+
+    /**
+     * Per-thread walk over the key space, so threads do not all hit the same stripe.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        @Setup(Level.Trial)
+        public void start() {
+            next = (int) (Thread.currentThread().threadId() * 7919);
+        }
+
+        int next(int bound) {
+            next = (next + 0x9E3779B9) & Integer.MAX_VALUE;
+            return next % bound;
+        }
+    }
+
+    @Benchmark
+    public Optional<Task> get(Registry state, Cursor cursor) {
+        return state.registry.get(state.names[cursor.next(state.size)]);
+    }
+
+    @Benchmark
+    public Optional<Task> getMiss(Registry state, Cursor cursor) {
+        return state.registry.get("missing-" + cursor.next(1024));
+    }
+
+    @Benchmark
+    public void addReplace(Registry state, Cursor cursor) {
+        state.registry.add(state.tasks[cursor.next(state.size)]);
+    }
+
+    /**
+     * Eight threads changing priorities on tasks spread over every stripe. The stripe
+     * locks rarely collide, so this shows contention elsewhere, such as the versioned
+     * store's single root.
+     */
+    @Benchmark
+    @Threads(8)
+    public void replaceContended(Registry state, Cursor cursor) {
+        int i = cursor.next(state.size);
+        // The turn is not synchronized; a lost flip only repeats one no-change replace
+        state.registry.add((state.turns[i] ^= 1) == 1 ? state.changed[i] : state.tasks[i]);
+    }
+
+    @Benchmark
+    public void removeThenAdd(Registry state, Cursor cursor) {
+        int i = cursor.next(state.size);
+        state.registry.remove(state.names[i]);
+        state.registry.add(state.tasks[i]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void removeThenAddContended(Registry state, Cursor cursor) {
+        removeThenAdd(state, cursor);
+    }
+
+    /**
+     * A selective listing answered from one index cell, stopping after ten tasks.
+     */
+    @Benchmark
+    public List<Task> queryPriorityLimit(Registry state) {
+        return state.registry.query().priority(Priority.HIGH).limit(10).list();
+    }
+
+    @Benchmark
+    public long queryCount(Registry state) {
+        return state.registry.query().status(Status.TODO).priority(Priority.HIGH).count();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5, batchSize = 1)
+    public Map<String, Task> getAll(Registry state) {
+        return state.registry.getAll();
+    }
+
+    /**
+     * Loads every task into an empty registry one {@link TaskRegistry#add} at a time, the
+     * baseline for {@link #addAllFresh}.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5, batchSize = 1)
+    public TaskRegistry addEachFresh(Registry state) {
+        TaskRegistry fresh = new TaskRegistry(BenchmarkStores.create(state.store, state.size));
+        for (Task task : state.tasks) {
+            fresh.add(task);
+        }
+        return fresh;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5, batchSize = 1)
+    public TaskRegistry addAllFresh(Registry state) {
+        TaskRegistry fresh = new TaskRegistry(BenchmarkStores.create(state.store, state.size));
+        fresh.addAll(Arrays.asList(state.tasks));
+        return fresh;
+    }
+}
@@ -3,13 +3,34 @@ package edu.touro.las.mcon364.taskmanager;
 public final class AddTaskCommand implements Command {
     private final TaskRegistry registry;
     private final Task task;
+    private final long requestId;
 
     public AddTaskCommand(TaskRegistry registry, Task task) {
+        this(registry, task, NO_REQUEST_ID);
+    }
+
+    /**
+     * Creates the command as request {@code requestId}; see {@link Command#requestId}.
+     */
+    public AddTaskCommand(TaskRegistry registry, Task task, long requestId) {
         this.registry = registry;
         this.task = task;
+        this.requestId = requestId;
     }
 
     public void execute() {
         registry.add(task);
     }
+
+    public String taskName() {
+        return task.name();
+    }
+
+    public Task task() {
+        return task;
+    }
+
+    public long requestId() {
+        return requestId;
+    }
 }
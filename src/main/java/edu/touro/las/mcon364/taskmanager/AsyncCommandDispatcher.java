@@ -0,0 +1,152 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Single-writer front end for a {@link TaskManager}. Any number of producers submit
+ * commands into a bounded queue; one writer thread drains the queue in chunks and
+ * applies each chunk with {@link TaskManager#runAll}, so the registry only ever sees
+ * one writing thread. A full queue parks the submitter, which is cheap when producers
+ * run on virtual threads. Optionally each chunk is coalesced first, see
+ * {@link TaskManager#runCoalesced}; the queue then acts as the batch window.
+ */
+public final class AsyncCommandDispatcher implements AutoCloseable {
+    private static final int MAX_DRAIN = 1024;
+    private static final Pending SHUTDOWN = new Pending(null, null);
+
+    private record Pending(Command command, CompletableFuture<Void> future) {}
+
+    private final TaskManager manager;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private final boolean coalesce;
+    private volatile boolean closed;
+
+    AsyncCommandDispatcher(TaskManager manager, int queueCapacity, boolean coalesce) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        this.manager = manager;
+        this.coalesce = coalesce;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::drain, "task-command-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a command for the writer thread. The returned future completes once the
+     * command has been applied, or exceptionally with the exception it threw.
+     */
+    public CompletableFuture<Void> submit(Command command) {
+        if (closed) {
+            throw new IllegalStateException("Dispatcher is closed");
+        }
+        Pending pending = new Pending(command, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future().completeExceptionally(e);
+            return pending.future();
+        }
+        // Lost a race with close(): if the writer has not picked the command up, nobody will
+        if (closed && queue.remove(pending)) {
+            pending.future().completeExceptionally(new IllegalStateException("Dispatcher is closed"));
+        }
+        return pending.future();
+    }
+
+    /**
+     * Stops accepting commands, waits for everything already queued to be applied and
+     * stops the writer thread. Futures complete on the writer thread, so a callback may
+     * call this too; it then returns at once, and the writer stops by itself after
+     * applying what is queued.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (Thread.currentThread() == writer) {
+            // Joining would wait for this very callback to return
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(SHUTDOWN);
+                writer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        Pending leftover;
+        while ((leftover = queue.poll()) != null) {
+            if (leftover != SHUTDOWN) {
+                leftover.future().completeExceptionally(new IllegalStateException("Dispatcher is closed"));
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        List<Pending> chunk = new ArrayList<>(MAX_DRAIN);
+        List<Command> commands = new ArrayList<>(MAX_DRAIN);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                chunk.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(chunk, MAX_DRAIN - 1);
+            for (Pending pending : chunk) {
+                if (pending == SHUTDOWN) {
+                    stopping = true;
+                } else {
+                    commands.add(pending.command());
+                }
+            }
+            complete(chunk, commands);
+            chunk.clear();
+            commands.clear();
+            // Closed from a callback on this thread, which queued no SHUTDOWN
+            if (closed && queue.isEmpty()) {
+                stopping = true;
+            }
+        }
+    }
+
+    private void complete(List<Pending> chunk, List<Command> commands) {
+        List<CommandResult> results;
+        try {
+            results = coalesce ? manager.runCoalesced(commands) : manager.runAll(commands);
+        } catch (RuntimeException e) {
+            // The batch could not even be routed; fail it rather than kill the writer
+            for (Pending pending : chunk) {
+                if (pending != SHUTDOWN) {
+                    pending.future().completeExceptionally(e);
+                }
+            }
+            return;
+        }
+        int next = 0;
+        for (Pending pending : chunk) {
+            if (pending != SHUTDOWN) {
+                CommandResult result = results.get(next++);
+                result.failure().ifPresentOrElse(
+                        pending.future()::completeExceptionally,
+                        () -> pending.future().complete(null));
+            }
+        }
+    }
+}
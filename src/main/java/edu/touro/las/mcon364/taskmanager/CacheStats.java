@@ -0,0 +1,20 @@
+package edu.touro.las.mcon364.taskmanager;
+
+/**
+ * Point-in-time figures for a {@link CachingTaskStore}.
+ *
+ * @param hits          lookups answered from the cache
+ * @param misses        lookups that went to the backing store
+ * @param evictions     entries dropped by the eviction policy to stay within capacity
+ * @param invalidations entries dropped because their task was written
+ */
+public record CacheStats(long hits, long misses, long evictions, long invalidations) {
+
+    /**
+     * Returns the fraction of lookups answered from the cache, or 0 if there were none.
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
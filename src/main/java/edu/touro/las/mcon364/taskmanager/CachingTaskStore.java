@@ -0,0 +1,230 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Size-bounded, read-through cache in front of a slower {@link TaskStore}, such as an
+ * {@link OffHeapTaskStore}, so repeated lookups of hot names do not go to storage each
+ * time. Lookups that miss load the task and its status from the backing store and
+ * cache them; an {@link EvictionPolicy} decides what to drop once the cache is full.
+ * Every write goes to the backing store and then invalidates the name, so add, update,
+ * remove and status commands are never answered from a stale entry. Names that are not
+ * stored are not cached.
+ * <p>
+ * The cache is split by name hash into segments, each with its own lock and policy, so
+ * concurrent readers of different names rarely meet.
+ */
+public final class CachingTaskStore implements TaskStore {
+    private static final int SEGMENTS = 16;
+    // Below this many entries per segment a single segment keeps eviction accurate
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+
+    private record Entry(Task task, Status status) {}
+
+    private static final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Entry> entries = new HashMap<>();
+        final EvictionPolicy policy;
+        // Bumped by every invalidation, so a load that raced a write is not cached
+        long invalidations;
+
+        Segment(EvictionPolicy policy) {
+            this.policy = policy;
+        }
+    }
+
+    private final TaskStore backing;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Caches up to {@code capacity} tasks from {@code backing}, evicting by LRU.
+     */
+    public CachingTaskStore(TaskStore backing, int capacity) {
+        this(backing, capacity, EvictionPolicy::lru);
+    }
+
+    /**
+     * Caches up to {@code capacity} tasks from {@code backing}. Each segment gets its own
+     * policy from {@code policies}, given that segment's share of the capacity; pass
+     * {@code EvictionPolicy::tinyLfu} for frequency-aware eviction.
+     */
+    public CachingTaskStore(TaskStore backing, int capacity, IntFunction<? extends EvictionPolicy> policies) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.backing = backing;
+        int count = capacity >= SEGMENTS * MIN_SEGMENT_CAPACITY ? SEGMENTS : 1;
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // Spread the remainder so the segments add up to exactly the capacity
+            segments[i] = new Segment(policies.apply(capacity / count + (i < capacity % count ? 1 : 0)));
+        }
+    }
+
+    @Override
+    public Task put(Task task) {
+        Task previous = backing.put(task);
+        invalidate(task.name());
+        return previous;
+    }
+
+    @Override
+    public Task get(String name) {
+        Entry entry = lookup(name);
+        return entry == null ? null : entry.task();
+    }
+
+    @Override
+    public Task remove(String name) {
+        Task previous = backing.remove(name);
+        invalidate(name);
+        return previous;
+    }
+
+    @Override
+    public Status getStatus(String name) {
+        Entry entry = lookup(name);
+        return entry == null ? null : entry.status();
+    }
+
+    @Override
+    public byte getState(String name) {
+        Entry entry = lookup(name);
+        return entry == null ? -1 : state(entry);
+    }
+
+    /**
+     * Reads a cached entry without touching the policy or the statistics, and otherwise
+     * goes to the backing store without caching the result.
+     */
+    @Override
+    public byte peekState(String name) {
+        Segment segment = segmentFor(name);
+        Entry cached;
+        segment.lock.lock();
+        try {
+            cached = segment.entries.get(name);
+        } finally {
+            segment.lock.unlock();
+        }
+        return cached == null ? backing.getState(name) : state(cached);
+    }
+
+    @Override
+    public Status setStatus(String name, Status status) {
+        Status previous = backing.setStatus(name, status);
+        invalidate(name);
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return backing.size();
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        backing.ensureCapacity(expectedSize);
+    }
+
+    /**
+     * Visits the backing store directly; a full scan would only flush the cache.
+     */
+    @Override
+    public void forEachEntry(BiConsumer<Task, Status> action) {
+        backing.forEachEntry(action);
+    }
+
+    /**
+     * Returns the number of tasks currently cached.
+     */
+    public int cachedSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum());
+    }
+
+    private Entry lookup(String name) {
+        Segment segment = segmentFor(name);
+        long stamp;
+        segment.lock.lock();
+        try {
+            Entry cached = segment.entries.get(name);
+            if (cached != null) {
+                segment.policy.onHit(name);
+                hits.increment();
+                return cached;
+            }
+            stamp = segment.invalidations;
+        } finally {
+            segment.lock.unlock();
+        }
+
+        // Load outside the lock so a slow store does not stall the segment's hits
+        misses.increment();
+        Task task = backing.get(name);
+        Status status = task == null ? null : backing.getStatus(name);
+        if (status == null) {
+            return null;
+        }
+        Entry loaded = new Entry(task, status);
+        segment.lock.lock();
+        try {
+            if (segment.invalidations == stamp && !segment.entries.containsKey(name)) {
+                segment.entries.put(name, loaded);
+                segment.policy.onInsert(name, victim -> {
+                    segment.entries.remove(victim);
+                    evictions.increment();
+                });
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        return loaded;
+    }
+
+    private static byte state(Entry entry) {
+        return (byte) (entry.status().ordinal() << 2 | entry.task().priority().ordinal());
+    }
+
+    private void invalidate(String name) {
+        Segment segment = segmentFor(name);
+        segment.lock.lock();
+        try {
+            segment.invalidations++;
+            if (segment.entries.remove(name) != null) {
+                segment.policy.onRemove(name);
+                invalidations.increment();
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private Segment segmentFor(String name) {
+        int h = name.hashCode();
+        h ^= h >>> 16;
+        // High bits of the product, so segments do not line up with the registry's stripes
+        return segments[(int) (((h * 0x9E3779B9L) & 0xFFFFFFFFL) * segments.length >>> 32)];
+    }
+}
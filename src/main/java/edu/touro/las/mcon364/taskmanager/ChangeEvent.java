@@ -0,0 +1,14 @@
+package edu.touro.las.mcon364.taskmanager;
+
+/**
+ * One mutation of a {@link TaskRegistry}, as delivered by a {@link ChangeFeed}.
+ *
+ * @param sequence position of the change in its feed; consecutive changes have consecutive numbers
+ * @param task     the task as stored after the change, or as it was before a removal
+ * @param status   the task's new status for {@link Type#ADDED} and {@link Type#STATUS_CHANGED},
+ *                 otherwise {@code null} because the change left the status alone
+ */
+public record ChangeEvent(long sequence, Type type, Task task, Status status) {
+
+    public enum Type { ADDED, UPDATED, REMOVED, STATUS_CHANGED }
+}
@@ -0,0 +1,200 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Publish/subscribe feed of registry mutations, opened with
+ * {@link TaskRegistry#openChangeFeed(int)}. Every add, replacement, removal and status
+ * change is written to a pre-allocated ring under a sequence number, so the mutation
+ * path allocates nothing. Subscribers each keep their own cursor and read at their own
+ * pace; writers never wait for them. A subscriber that falls more than a ring behind
+ * skips the overwritten events and can see how many it missed.
+ * <p>
+ * Events for one task appear in the order its mutations happened. Writers on different
+ * tasks claim sequence numbers concurrently, and a subscriber stops at the first
+ * sequence not yet published, so it never sees a gap that is later filled.
+ */
+public final class ChangeFeed implements AutoCloseable {
+    private static final ChangeEvent.Type[] TYPES = ChangeEvent.Type.values();
+
+    private final TaskRegistry registry;
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    private final TaskIndex publisher = new Publisher();
+
+    /**
+     * One reusable event. {@code sequence} is the seqlock word: the event's sequence once
+     * published, or {@code Long.MIN_VALUE + sequence} while a writer is filling it in.
+     * Slots start out one lap behind, from {@code -capacity} to {@code -1}.
+     */
+    private static final class Slot {
+        volatile long sequence;
+        volatile int type;
+        volatile Task task;
+        volatile Status status;
+    }
+
+    ChangeFeed(TaskRegistry registry, int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        this.registry = registry;
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        ring = new Slot[size];
+        mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot();
+            // As if a previous lap had published here, so the first writer need not wait
+            ring[i].sequence = i - size;
+        }
+    }
+
+    /**
+     * Returns a new subscription that receives every change published after this call.
+     */
+    public Subscription subscribe() {
+        return new Subscription(next.get());
+    }
+
+    /**
+     * Returns the sequence number the next change will get; also the total number of
+     * changes published so far.
+     */
+    public long sequence() {
+        return next.get();
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * Stops recording changes. Subscribers can still drain what was published.
+     */
+    @Override
+    public void close() {
+        registry.detach(publisher);
+    }
+
+    TaskIndex publisher() {
+        return publisher;
+    }
+
+    private void publish(ChangeEvent.Type type, Task task, Status status) {
+        long sequence = next.getAndIncrement();
+        Slot slot = ring[(int) sequence & mask];
+        // A writer a full lap ahead must let the previous one finish with this slot
+        while (slot.sequence != sequence - ring.length) {
+            Thread.onSpinWait();
+        }
+        slot.sequence = Long.MIN_VALUE + sequence;
+        slot.type = type.ordinal();
+        slot.task = task;
+        slot.status = status;
+        slot.sequence = sequence;
+    }
+
+    private final class Publisher implements TaskIndex {
+        @Override
+        public void onPut(Task previous, Task current) {
+            if (previous == null) {
+                publish(ChangeEvent.Type.ADDED, current, Status.TODO);
+            } else {
+                publish(ChangeEvent.Type.UPDATED, current, null);
+            }
+        }
+
+        @Override
+        public void onRemove(Task previous) {
+            publish(ChangeEvent.Type.REMOVED, previous, null);
+        }
+
+        @Override
+        public void onStatusChange(Task task, Status previous, Status current) {
+            publish(ChangeEvent.Type.STATUS_CHANGED, task, current);
+        }
+    }
+
+    /**
+     * A reader's position in the feed. A subscription is meant for one consuming thread.
+     */
+    public final class Subscription {
+        private long cursor;
+        private long missed;
+
+        private Subscription(long cursor) {
+            this.cursor = cursor;
+        }
+
+        /**
+         * Hands up to {@code max} pending events to {@code handler}, oldest first, and
+         * returns how many it delivered. Returns 0 without blocking when nothing is pending.
+         */
+        public int poll(Consumer<? super ChangeEvent> handler, int max) {
+            int delivered = 0;
+            while (delivered < max) {
+                Slot slot = ring[(int) cursor & mask];
+                long before = slot.sequence;
+                if (before == cursor) {
+                    int type = slot.type;
+                    Task task = slot.task;
+                    Status status = slot.status;
+                    if (slot.sequence == cursor) {
+                        handler.accept(new ChangeEvent(cursor, TYPES[type], task, status));
+                        cursor++;
+                        delivered++;
+                        continue;
+                    }
+                } else if (lap(before) <= cursor) {
+                    // Not published yet
+                    return delivered;
+                }
+                skipOverwritten();
+            }
+            return delivered;
+        }
+
+        /**
+         * Returns how many events were overwritten before this subscription read them.
+         */
+        public long missed() {
+            return missed;
+        }
+
+        /**
+         * Returns the sequence number of the next event this subscription will read.
+         */
+        public long position() {
+            return cursor;
+        }
+
+        /**
+         * Returns how many published or in-flight events this subscription has not read.
+         */
+        public long lag() {
+            return next.get() - cursor;
+        }
+
+        private void skipOverwritten() {
+            long oldest = next.get() - ring.length;
+            if (oldest > cursor) {
+                missed += oldest - cursor;
+                cursor = oldest;
+            } else {
+                // Only the slot being read was lapped; the next one may still be intact
+                missed++;
+                cursor++;
+            }
+        }
+    }
+
+    // Sequence number a slot's seqlock word refers to, whether published or in flight
+    private long lap(long word) {
+        return word < -ring.length ? word - Long.MIN_VALUE : word;
+    }
+}
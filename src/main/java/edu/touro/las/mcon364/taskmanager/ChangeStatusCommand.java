@@ -0,0 +1,39 @@
+package edu.touro.las.mcon364.taskmanager;
+
+public final class ChangeStatusCommand implements Command {
+    private final TaskRegistry registry;
+    private final String taskName;
+    private final Status newStatus;
+    private final long requestId;
+
+    public ChangeStatusCommand(TaskRegistry registry, String taskName, Status newStatus) {
+        this(registry, taskName, newStatus, NO_REQUEST_ID);
+    }
+
+    /**
+     * Creates the command as request {@code requestId}; see {@link Command#requestId}.
+     */
+    public ChangeStatusCommand(TaskRegistry registry, String taskName, Status newStatus, long requestId) {
+        this.registry = registry;
+        this.taskName = taskName;
+        this.newStatus = newStatus;
+        this.requestId = requestId;
+    }
+
+    public void execute() {
+        registry.setStatus(taskName, newStatus)
+                .orElseThrow(() -> new TaskNotFoundException("Task '" + taskName + "' not found"));
+    }
+
+    public String taskName() {
+        return taskName;
+    }
+
+    public Status newStatus() {
+        return newStatus;
+    }
+
+    public long requestId() {
+        return requestId;
+    }
+}
@@ -0,0 +1,101 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically checkpoints a journaled registry: writes a {@link RegistryCheckpoint} of
+ * its contents, then truncates the journal records the checkpoint covers. On startup,
+ * {@link #recover} loads the latest checkpoint and replays only the journal tail.
+ */
+public final class Checkpointer implements AutoCloseable {
+    private final TaskRegistry registry;
+    private final CommandJournal journal;
+    private final Path checkpointPath;
+    private ScheduledExecutorService scheduler;
+
+    public Checkpointer(TaskRegistry registry, CommandJournal journal, Path checkpointPath) {
+        this.registry = registry;
+        this.journal = journal;
+        this.checkpointPath = checkpointPath;
+    }
+
+    /**
+     * Rebuilds a registry from the checkpoint at {@code checkpointPath}, if there is one,
+     * followed by the journal records written after it.
+     */
+    public static TaskRegistry recover(Path checkpointPath, CommandJournal journal) {
+        TaskRegistry registry = new TaskRegistry();
+        long covered = Files.exists(checkpointPath) ? RegistryCheckpoint.load(checkpointPath, registry) : 0;
+        journal.replay(registry, covered);
+        // The journal may have been truncated right up to the checkpoint
+        journal.advanceTo(covered);
+        return registry;
+    }
+
+    /**
+     * Writes a checkpoint now and returns the journal sequence number it covers.
+     */
+    public synchronized long checkpoint() {
+        Map<Task, Status> tasks = new LinkedHashMap<>();
+        long sequence;
+        // Journal appends happen under the registry's stripe locks, so with every stripe
+        // held the copy and the journal position describe the same moment
+        registry.lockAll();
+        try {
+            registry.forEachEntry(tasks::put);
+            sequence = journal.lastSequence();
+        } finally {
+            registry.unlockAll();
+        }
+        // Everything the checkpoint covers must be durable before the journal loses it
+        journal.awaitDurable(sequence);
+        RegistryCheckpoint.write(checkpointPath, sequence, tasks);
+        journal.truncateThrough(sequence);
+        return sequence;
+    }
+
+    /**
+     * Checkpoints every {@code period} on a background thread until closed. If a
+     * checkpoint fails, later ones are suppressed and the returned future reports the failure.
+     */
+    public synchronized ScheduledFuture<?> schedule(Duration period) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "task-checkpointer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long nanos = period.toNanos();
+        return scheduler.scheduleWithFixedDelay(this::checkpoint, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops scheduled checkpoints, waiting for one already running to finish.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            running.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,6 +1,25 @@
 package edu.touro.las.mcon364.taskmanager;
 
 public sealed interface Command
-        permits AddTaskCommand, RemoveTaskCommand, UpdateTaskCommand {
+        permits AddTaskCommand, RemoveTaskCommand, UpdateTaskCommand, ChangeStatusCommand {
+    /**
+     * The request ID of a command that has none.
+     */
+    long NO_REQUEST_ID = 0;
+
     void execute();
-}
\ No newline at end of file
+
+    /**
+     * Name of the task this command acts on; used to route the command to its registry lock.
+     */
+    String taskName();
+
+    /**
+     * ID the submitter gave this request, or {@link #NO_REQUEST_ID}. A producer that
+     * retries a command sends it again with the same ID, so that a {@link TaskManager}
+     * with deduplication enabled applies it only once.
+     */
+    default long requestId() {
+        return NO_REQUEST_ID;
+    }
+}
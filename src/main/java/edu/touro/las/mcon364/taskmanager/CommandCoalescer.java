@@ -0,0 +1,93 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collapses redundant commands for the same task within one batch, leaving a shorter
+ * batch that brings the registry to the same final state. Only neighbouring commands
+ * for a name are merged, and only where the result is exact:
+ * <ul>
+ *   <li>an add or update followed by an update becomes one add or update with the last priority;</li>
+ *   <li>an add or update followed by an add becomes the later add;</li>
+ *   <li>anything followed by a remove becomes the remove, since the remove deletes the task
+ *       whether or not it existed before the batch;</li>
+ *   <li>a remove followed by an update stays the remove, since the update finds no task;</li>
+ *   <li>consecutive status changes become the last one.</li>
+ * </ul>
+ * A remove followed by an add is kept as is, because the add then starts the task over
+ * at {@link Status#TODO} where a lone add would keep its old status. Commands with a
+ * request ID are never merged, so each is still checked for being a duplicate.
+ */
+final class CommandCoalescer {
+
+    /**
+     * The commands left after coalescing, in batch order, and for each input command the
+     * position of the command that now carries its effect.
+     */
+    record Batch(List<Command> commands, int[] carrierOf) {}
+
+    private CommandCoalescer() {}
+
+    static Batch coalesce(List<? extends Command> commands, TaskRegistry registry) {
+        int n = commands.size();
+        Command[] kept = new Command[n];
+        // Input position -> later position its effect was merged into, or itself
+        int[] mergedInto = new int[n];
+        Map<String, Integer> lastFor = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Command command = commands.get(i);
+            mergedInto[i] = i;
+            Integer previous = lastFor.put(command.taskName(), i);
+            Command merged = previous == null ? null : merge(kept[previous], command, registry);
+            if (merged == null) {
+                kept[i] = command;
+            } else {
+                kept[previous] = null;
+                kept[i] = merged;
+                mergedInto[previous] = i;
+            }
+        }
+
+        List<Command> result = new ArrayList<>(n);
+        int[] positionOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (kept[i] != null) {
+                positionOf[i] = result.size();
+                result.add(kept[i]);
+            }
+        }
+        int[] carrierOf = new int[n];
+        // Merges only ever point forward, so walking backwards resolves each chain in one step
+        for (int i = n - 1; i >= 0; i--) {
+            int into = mergedInto[i];
+            carrierOf[i] = into == i ? positionOf[i] : carrierOf[into];
+        }
+        return new Batch(result, carrierOf);
+    }
+
+    /**
+     * Returns one command with the effect of {@code first} then {@code second} on the
+     * same task, or {@code null} if they cannot be merged exactly.
+     */
+    private static Command merge(Command first, Command second, TaskRegistry registry) {
+        if (first.requestId() != Command.NO_REQUEST_ID || second.requestId() != Command.NO_REQUEST_ID) {
+            return null;
+        }
+        return switch (second) {
+            case UpdateTaskCommand update -> switch (first) {
+                case AddTaskCommand add ->
+                        new AddTaskCommand(registry, new Task(add.taskName(), update.newPriority()));
+                case UpdateTaskCommand earlier -> update;
+                case RemoveTaskCommand remove -> remove;
+                case ChangeStatusCommand changeStatus -> null;
+            };
+            case AddTaskCommand add ->
+                    first instanceof AddTaskCommand || first instanceof UpdateTaskCommand ? add : null;
+            case RemoveTaskCommand remove -> first instanceof ChangeStatusCommand ? null : remove;
+            case ChangeStatusCommand changeStatus -> first instanceof ChangeStatusCommand ? changeStatus : null;
+        };
+    }
+}
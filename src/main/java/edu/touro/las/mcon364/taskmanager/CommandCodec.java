@@ -0,0 +1,146 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary form of an executed command, shared by everything that persists or
+ * ships commands. A record is laid out as
+ * {@code [int bodyLength][int crc32(body)][long sequence][byte opcode][byte argument][short nameLength][name UTF-8][long requestId]},
+ * where the argument is a priority or status ordinal, depending on the opcode. The
+ * request ID is written only for a command that has one, which the opcode's high bit
+ * marks, so records without one keep their size.
+ */
+final class CommandCodec {
+    static final int HEADER_BYTES = Integer.BYTES * 2;
+    static final int MAX_NAME_BYTES = 0xFFFF;
+
+    static final byte ADD = 1;
+    static final byte REMOVE = 2;
+    static final byte UPDATE = 3;
+    static final byte CHANGE_STATUS = 4;
+    private static final byte HAS_REQUEST_ID = (byte) 0x80;
+
+    private static final int FIXED_BODY_BYTES = Long.BYTES + 2 + Short.BYTES;
+    static final byte NO_ARGUMENT = -1;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private CommandCodec() {}
+
+    /**
+     * Writes the full record for {@code command} into {@code buffer}, growing it if needed,
+     * and returns the buffer flipped for reading.
+     */
+    static ByteBuffer encode(long sequence, Command command, ByteBuffer buffer) {
+        return encode(sequence, opcode(command), argument(command), command.taskName(), command.requestId(), buffer);
+    }
+
+    /**
+     * Writes the record for a command already broken into its fields, as
+     * {@link CommandRing} holds them.
+     */
+    static ByteBuffer encode(long sequence, byte opcode, byte argument, String taskName, long requestId,
+                             ByteBuffer buffer) {
+        byte[] name = taskName.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Task name too long to encode: " + name.length + " bytes");
+        }
+
+        boolean hasRequestId = requestId != Command.NO_REQUEST_ID;
+        int bodyLength = FIXED_BODY_BYTES + name.length + (hasRequestId ? Long.BYTES : 0);
+        if (buffer.capacity() < HEADER_BYTES + bodyLength) {
+            buffer = ByteBuffer.allocate(Math.max(HEADER_BYTES + bodyLength, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        buffer.position(HEADER_BYTES);
+        buffer.putLong(sequence).put(hasRequestId ? (byte) (opcode | HAS_REQUEST_ID) : opcode).put(argument)
+                .putShort((short) name.length).put(name);
+        if (hasRequestId) {
+            buffer.putLong(requestId);
+        }
+        buffer.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_BYTES));
+        buffer.putInt(0, bodyLength).putInt(Integer.BYTES, (int) crc.getValue());
+        return buffer;
+    }
+
+    static byte opcode(Command command) {
+        return switch (command) {
+            case AddTaskCommand add -> ADD;
+            case RemoveTaskCommand remove -> REMOVE;
+            case UpdateTaskCommand update -> UPDATE;
+            case ChangeStatusCommand changeStatus -> CHANGE_STATUS;
+        };
+    }
+
+    /**
+     * Returns the priority or status ordinal the command carries, or -1 if it has none.
+     */
+    static byte argument(Command command) {
+        return switch (command) {
+            case AddTaskCommand add -> (byte) add.task().priority().ordinal();
+            case RemoveTaskCommand remove -> NO_ARGUMENT;
+            case UpdateTaskCommand update -> (byte) update.newPriority().ordinal();
+            case ChangeStatusCommand changeStatus -> (byte) changeStatus.newStatus().ordinal();
+        };
+    }
+
+    /**
+     * Returns whether {@code body} matches the checksum stored in its record header.
+     */
+    static boolean verify(ByteBuffer body, int expectedCrc) {
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        return (int) crc.getValue() == expectedCrc;
+    }
+
+    static long sequence(ByteBuffer body) {
+        return body.getLong(body.position());
+    }
+
+    /**
+     * Returns the request ID stored in a record body, or {@link Command#NO_REQUEST_ID}.
+     */
+    static long requestId(ByteBuffer body) {
+        if ((body.get(body.position() + Long.BYTES) & HAS_REQUEST_ID) == 0) {
+            return Command.NO_REQUEST_ID;
+        }
+        return body.getLong(body.limit() - Long.BYTES);
+    }
+
+    /**
+     * Returns the task name stored in a record body.
+     */
+    static String taskName(ByteBuffer body) {
+        ByteBuffer in = body.duplicate();
+        in.position(in.position() + FIXED_BODY_BYTES - Short.BYTES);
+        byte[] nameBytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(nameBytes);
+        return new String(nameBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rebuilds the command stored in a record body, bound to {@code registry}, with its
+     * request ID.
+     */
+    static Command decode(ByteBuffer body, TaskRegistry registry) {
+        ByteBuffer in = body.duplicate();
+        in.getLong();
+        byte opcode = (byte) (in.get() & ~HAS_REQUEST_ID);
+        byte argument = in.get();
+        String name = taskName(body);
+        long requestId = requestId(body);
+
+        return switch (opcode) {
+            case ADD -> new AddTaskCommand(registry, new Task(name, PRIORITIES[argument]), requestId);
+            case REMOVE -> new RemoveTaskCommand(registry, name, requestId);
+            case UPDATE -> new UpdateTaskCommand(registry, name, PRIORITIES[argument], requestId);
+            case CHANGE_STATUS -> new ChangeStatusCommand(registry, name, STATUSES[argument], requestId);
+            default -> throw new IllegalArgumentException("Unknown command opcode: " + opcode);
+        };
+    }
+}
@@ -0,0 +1,175 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded undo/redo history for a {@link TaskManager}. Every command touches one task,
+ * so each step is recorded as just the task's name and its state before and after, one
+ * byte each: absent, or status and priority packed together. The steps live in a ring of
+ * parallel arrays, so recording allocates nothing and the history never holds more than
+ * {@code depth} steps; once full, the oldest step is dropped.
+ * <p>
+ * Recording takes no shared lock: each step claims the next sequence number from an
+ * {@link AtomicLong}, and with it the slot at that number modulo {@code depth}, so
+ * commands on different registry stripes record in parallel. Undo and redo run with
+ * every stripe lock held, so no step is half written while they move the sequence.
+ * <p>
+ * Undoing a step puts its task back in the earlier state and makes the step redoable;
+ * recording a new step discards anything redoable, as in an editor.
+ */
+final class CommandHistory {
+    static final byte ABSENT = -1;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    /**
+     * A task and the state to put it in.
+     */
+    record Step(String name, byte state) {}
+
+    private final String[] names;
+    private final byte[] before;
+    private final byte[] after;
+    // Per slot: the sequence number of its step, -1 if empty, or busy(sequence) while written
+    private final AtomicLongArray sequences;
+    // Sequence number of the next step; the steps below it are undoable while the ring holds them
+    private final AtomicLong sequence = new AtomicLong();
+    // Guarded by this: where the last undo or redo left the sequence, and the end of the redoable steps
+    private long position;
+    private long redoLimit;
+
+    CommandHistory(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("History depth must be positive: " + depth);
+        }
+        names = new String[depth];
+        before = new byte[depth];
+        after = new byte[depth];
+        sequences = new AtomicLongArray(depth);
+        for (int i = 0; i < depth; i++) {
+            sequences.set(i, -1);
+        }
+    }
+
+    /**
+     * Returns the packed state of the named task with one {@link TaskStore#peekState}
+     * lookup, which uses the same packing and does not count as a read of the task.
+     */
+    static byte stateOf(TaskRegistry registry, String name) {
+        return registry.store().peekState(name);
+    }
+
+    /**
+     * Records that {@code command} ran successfully on a task that was in state
+     * {@code previous}. Commands that changed nothing are not recorded.
+     */
+    void record(Command command, byte previous) {
+        record(CommandCodec.opcode(command), CommandCodec.argument(command), command.taskName(), previous);
+    }
+
+    /**
+     * Records a command given as its encoded fields, as {@link CommandRing} holds them.
+     */
+    void record(byte opcode, byte argument, String name, byte previous) {
+        byte next = switch (opcode) {
+            case CommandCodec.ADD -> pack(PRIORITIES[argument], previous == ABSENT ? Status.TODO : statusOf(previous));
+            case CommandCodec.REMOVE -> ABSENT;
+            case CommandCodec.UPDATE -> previous == ABSENT ? ABSENT : pack(PRIORITIES[argument], statusOf(previous));
+            case CommandCodec.CHANGE_STATUS -> previous == ABSENT ? ABSENT : pack(priorityOf(previous), STATUSES[argument]);
+            default -> throw new IllegalArgumentException("Unknown command opcode: " + opcode);
+        };
+        if (next == previous) {
+            return;
+        }
+        long step = sequence.getAndIncrement();
+        int slot = slot(step);
+        while (true) {
+            long current = sequences.get(slot);
+            if (current < -1 ? busy(current) > step : current > step) {
+                // A step at least depth newer has the slot, so this one has aged out already
+                return;
+            }
+            if (current < -1) {
+                // An older step is still being written to the slot; it is a few stores away
+                Thread.onSpinWait();
+            } else if (sequences.compareAndSet(slot, current, busy(step))) {
+                break;
+            }
+        }
+        names[slot] = name;
+        before[slot] = previous;
+        after[slot] = next;
+        sequences.set(slot, step);
+    }
+
+    /**
+     * Steps back and returns the state to restore, or {@code null} if nothing is undoable.
+     * The caller holds every registry stripe lock.
+     */
+    synchronized Step undo() {
+        long top = sequence.get();
+        if (top != position) {
+            // Steps recorded since the last undo or redo discarded what was redoable
+            position = top;
+            redoLimit = top;
+        }
+        if (top == 0 || sequences.get(slot(top - 1)) != top - 1) {
+            return null;
+        }
+        position = top - 1;
+        sequence.set(position);
+        int slot = slot(position);
+        return new Step(names[slot], before[slot]);
+    }
+
+    /**
+     * Steps forward again and returns the state to restore, or {@code null} if nothing is
+     * redoable. The caller holds every registry stripe lock.
+     */
+    synchronized Step redo() {
+        long top = sequence.get();
+        if (top != position || top == redoLimit) {
+            return null;
+        }
+        int slot = slot(top);
+        position = top + 1;
+        sequence.set(position);
+        return new Step(names[slot], after[slot]);
+    }
+
+    private int slot(long step) {
+        return (int) (step % names.length);
+    }
+
+    // Maps a sequence number to its busy marker and back; markers are below -1
+    private static long busy(long step) {
+        return -step - 2;
+    }
+
+    /**
+     * Returns the commands that put the step's task into the step's state, whatever
+     * state it is in now.
+     */
+    static List<Command> restoring(TaskRegistry registry, Step step) {
+        if (step.state() == ABSENT) {
+            return List.of(new RemoveTaskCommand(registry, step.name()));
+        }
+        return List.of(
+                new AddTaskCommand(registry, new Task(step.name(), priorityOf(step.state()))),
+                new ChangeStatusCommand(registry, step.name(), statusOf(step.state())));
+    }
+
+    private static byte pack(Priority priority, Status status) {
+        return (byte) (status.ordinal() << 2 | priority.ordinal());
+    }
+
+    private static Priority priorityOf(byte state) {
+        return PRIORITIES[state & 3];
+    }
+
+    private static Status statusOf(byte state) {
+        return STATUSES[state >> 2];
+    }
+}
@@ -0,0 +1,416 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Append-only write-ahead journal of executed commands. Each command becomes one
+ * {@link CommandCodec} record with a sequence number. Appends only write to the file
+ * channel; callers then wait in {@link #awaitDurable}, where whichever thread arrives
+ * first forces the channel once on behalf of every record written so far (group commit).
+ * <p>
+ * The records also form one logical byte stream that survives truncation, which
+ * {@link ReplicationPrimary} tails to ship commands to followers without touching the
+ * append path.
+ */
+public final class CommandJournal implements Closeable {
+    private final Path path;
+    private final Object syncLock = new Object();
+    // Replaced only by truncateThrough, which excludes both appends and syncs while it does
+    private volatile FileChannel channel;
+
+    /**
+     * The current file as tail readers see it: its channel, the logical position of its
+     * first byte, which is how many bytes truncation has dropped so far, and the sequence
+     * number just before its first record. Replaced whole so readers get a matching set.
+     */
+    private record Segment(FileChannel channel, long start, long baseSequence) {}
+
+    private volatile Segment segment;
+    // Logical positions just past the last record written and the last one forced to disk
+    private volatile long writtenEnd;
+    private volatile long durableEnd;
+
+    // Guarded by this
+    private ByteBuffer buffer = ByteBuffer.allocate(256);
+    private long position;
+    private volatile long writtenSequence;
+
+    // Guarded by syncLock
+    private long syncedSequence;
+    private boolean syncing;
+
+    private CommandJournal(Path path, FileChannel channel, long position, long baseSequence, long lastSequence) {
+        this.path = path;
+        this.channel = channel;
+        this.position = position;
+        this.writtenSequence = lastSequence;
+        this.syncedSequence = lastSequence;
+        this.segment = new Segment(channel, 0, baseSequence);
+        this.writtenEnd = position;
+        this.durableEnd = position;
+    }
+
+    /**
+     * Opens or creates the journal at {@code path}. A torn or corrupt record at the end
+     * of the file, left by a crash mid-write, is cut off.
+     */
+    public static CommandJournal open(Path path) {
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long[] end = {0, 0, -1};
+            scan(channel, (position, body) -> {
+                end[0] = position;
+                end[1] = CommandCodec.sequence(body);
+                if (end[2] < 0) {
+                    end[2] = end[1] - 1;
+                }
+            });
+            if (channel.size() > end[0]) {
+                channel.truncate(end[0]);
+            }
+            return new CommandJournal(path, channel, end[0], end[2] < 0 ? end[1] : end[2], end[1]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal " + path, e);
+        }
+    }
+
+    /**
+     * Writes the record for an executed command and returns its sequence number. The
+     * record is not durable until {@link #awaitDurable} has returned for that number.
+     */
+    public long append(Command command) {
+        return append(CommandCodec.opcode(command), CommandCodec.argument(command), command.taskName(),
+                command.requestId());
+    }
+
+    /**
+     * Appends a command given as its encoded fields, as {@link CommandRing} holds them.
+     */
+    long append(byte opcode, byte argument, String taskName) {
+        return append(opcode, argument, taskName, Command.NO_REQUEST_ID);
+    }
+
+    private synchronized long append(byte opcode, byte argument, String taskName, long requestId) {
+        long sequence = writtenSequence + 1;
+        buffer = CommandCodec.encode(sequence, opcode, argument, taskName, requestId, buffer);
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to journal", e);
+        }
+        writtenEnd = segment.start() + position;
+        writtenSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Blocks until every record up to {@code sequence} has been forced to disk.
+     */
+    public void awaitDurable(long sequence) {
+        boolean interrupted = false;
+        synchronized (syncLock) {
+            while (syncedSequence < sequence && syncing) {
+                try {
+                    syncLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (syncedSequence >= sequence) {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            syncing = true;
+        }
+
+        // Both read before the force, so the force covers everything up to them
+        long targetEnd = writtenEnd;
+        long target = writtenSequence;
+        boolean synced = false;
+        try {
+            channel.force(false);
+            synced = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot sync journal", e);
+        } finally {
+            synchronized (syncLock) {
+                if (synced) {
+                    syncedSequence = Math.max(syncedSequence, target);
+                    durableEnd = Math.max(durableEnd, targetEnd);
+                }
+                syncing = false;
+                syncLock.notifyAll();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Applies every record in the journal, in order, to {@code registry} and returns
+     * the number of commands applied. Meant for a fresh registry at startup.
+     */
+    public long replay(TaskRegistry registry) {
+        return replay(registry, 0);
+    }
+
+    /**
+     * Like {@link #replay(TaskRegistry)}, but skips records up to and including
+     * {@code afterSequence}, which a checkpoint already covers.
+     */
+    public long replay(TaskRegistry registry, long afterSequence) {
+        long[] applied = {0};
+        try {
+            scan(channel, (position, body) -> {
+                if (CommandCodec.sequence(body) > afterSequence) {
+                    CommandCodec.decode(body, registry).execute();
+                    applied[0]++;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replay journal", e);
+        }
+        return applied[0];
+    }
+
+    /**
+     * Visits the task name and request ID of every record that has an ID, oldest first,
+     * so a restarted {@link TaskManager} can remember which requests it already applied.
+     */
+    void forEachRequest(ObjLongConsumer<String> visitor) {
+        try {
+            scan(channel, (end, body) -> {
+                long requestId = CommandCodec.requestId(body);
+                if (requestId != Command.NO_REQUEST_ID) {
+                    visitor.accept(CommandCodec.taskName(body), requestId);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read journal", e);
+        }
+    }
+
+    public long lastSequence() {
+        return writtenSequence;
+    }
+
+    /**
+     * Drops every record up to and including {@code sequence}. The surviving tail is
+     * copied to a new file that atomically replaces the journal; appends and syncs wait
+     * while this runs.
+     */
+    public synchronized void truncateThrough(long sequence) {
+        synchronized (syncLock) {
+            boolean interrupted = false;
+            while (syncing) {
+                try {
+                    syncLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            syncing = true;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        boolean replaced = false;
+        try {
+            long[] keepFrom = {0, 0};
+            scan(channel, (end, body) -> {
+                if (CommandCodec.sequence(body) <= sequence) {
+                    keepFrom[0] = end;
+                    keepFrom[1] = CommandCodec.sequence(body);
+                }
+            });
+            if (keepFrom[0] == 0) {
+                return;
+            }
+
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel tail = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long copied = 0;
+                long length = position - keepFrom[0];
+                while (copied < length) {
+                    copied += channel.transferTo(keepFrom[0] + copied, length - copied, tail);
+                }
+                tail.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            FileChannel previous = channel;
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = new Segment(channel, segment.start() + keepFrom[0], keepFrom[1]);
+            previous.close();
+            position -= keepFrom[0];
+            replaced = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot truncate journal " + path, e);
+        } finally {
+            synchronized (syncLock) {
+                if (replaced) {
+                    // The tail was forced as part of the copy
+                    syncedSequence = Math.max(syncedSequence, writtenSequence);
+                    durableEnd = writtenEnd;
+                }
+                syncing = false;
+                syncLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Makes the next record's sequence number follow {@code sequence} if the journal is
+     * behind it, as it is after a checkpoint has truncated every record.
+     */
+    synchronized void advanceTo(long sequence) {
+        if (writtenSequence < sequence) {
+            // Whatever the file still holds is at or below sequence and already covered
+            segment = new Segment(channel, segment.start(), sequence);
+            writtenSequence = sequence;
+            synchronized (syncLock) {
+                syncedSequence = Math.max(syncedSequence, sequence);
+            }
+        }
+    }
+
+    /**
+     * Returns the logical position just past the record numbered {@code afterSequence},
+     * where a reader that has applied everything up to it should resume, or -1 if that
+     * point is no longer in the journal or not yet written.
+     */
+    long tailStart(long afterSequence) {
+        while (true) {
+            Segment current = segment;
+            if (afterSequence < current.baseSequence() || afterSequence > writtenSequence) {
+                return -1;
+            }
+            if (afterSequence == current.baseSequence()) {
+                return current.start();
+            }
+            long[] found = {-1};
+            try {
+                scan(current.channel(), (end, body) -> {
+                    if (CommandCodec.sequence(body) == afterSequence) {
+                        found[0] = current.start() + end;
+                    }
+                });
+            } catch (ClosedChannelException e) {
+                if (segment == current) {
+                    throw new UncheckedIOException("Journal is closed", e);
+                }
+                // Truncation swapped the file mid-scan; look again in the new one
+                continue;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read journal", e);
+            }
+            return found[0];
+        }
+    }
+
+    /**
+     * Copies journal bytes from logical position {@code from} into {@code target}, up to
+     * the end of the last durable record, and returns how many were copied, or -1 if
+     * truncation has already dropped {@code from}. A record may be split across calls.
+     * Callers must not be interrupted while reading, since that closes the channel.
+     */
+    int readTail(long from, ByteBuffer target) {
+        while (true) {
+            Segment current = segment;
+            if (from < current.start()) {
+                return -1;
+            }
+            long available = durableEnd - from;
+            if (available <= 0 || !target.hasRemaining()) {
+                return 0;
+            }
+            ByteBuffer window = target.duplicate();
+            window.limit(window.position() + (int) Math.min(window.remaining(), available));
+            try {
+                // A superseded file still holds the same bytes up to where it was cut
+                int read = Math.max(0, current.channel().read(window, from - current.start()));
+                target.position(target.position() + read);
+                return read;
+            } catch (ClosedChannelException e) {
+                if (segment == current) {
+                    throw new UncheckedIOException("Journal is closed", e);
+                }
+                continue;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read journal", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        /**
+         * @param end  file position just past the record
+         * @param body the record body, positioned at its start
+         */
+        void visit(long end, ByteBuffer body);
+    }
+
+    /**
+     * Visits every intact record from the start of the channel, stopping at the first
+     * incomplete or corrupt one.
+     */
+    static void scan(FileChannel channel, RecordVisitor visitor) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(CommandCodec.HEADER_BYTES);
+        ByteBuffer body = ByteBuffer.allocate(256);
+        long position = 0;
+        long size = channel.size();
+        while (position + CommandCodec.HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.getInt(0);
+            int crc = header.getInt(Integer.BYTES);
+            long end = position + CommandCodec.HEADER_BYTES + length;
+            if (length <= 0 || end > size) {
+                return;
+            }
+            if (body.capacity() < length) {
+                body = ByteBuffer.allocate(Math.max(length, body.capacity() * 2));
+            }
+            body.clear().limit(length);
+            readFully(channel, body, position + CommandCodec.HEADER_BYTES);
+            body.flip();
+            if (!CommandCodec.verify(body, crc)) {
+                return;
+            }
+            visitor.visit(end, body);
+            position = end;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of journal at " + position);
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Always-on execution metrics for a {@link TaskManager}: a latency histogram and
+ * execution, failure and {@link TaskNotFoundException} counters per command type, plus
+ * the number of commands removed by coalescing or skipped as duplicates.
+ * Recording is a couple of striped counter increments and one histogram increment,
+ * with no allocation.
+ */
+public final class CommandMetrics implements CommandMetricsMXBean {
+    private static final String[] COMMANDS = {
+            AddTaskCommand.class.getSimpleName(),
+            RemoveTaskCommand.class.getSimpleName(),
+            UpdateTaskCommand.class.getSimpleName(),
+            ChangeStatusCommand.class.getSimpleName()
+    };
+
+    private final LatencyHistogram[] latency = new LatencyHistogram[COMMANDS.length];
+    private final LongAdder[] executions = new LongAdder[COMMANDS.length];
+    private final LongAdder[] failures = new LongAdder[COMMANDS.length];
+    private final LongAdder[] notFound = new LongAdder[COMMANDS.length];
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+
+    CommandMetrics() {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            latency[i] = new LatencyHistogram();
+            executions[i] = new LongAdder();
+            failures[i] = new LongAdder();
+            notFound[i] = new LongAdder();
+        }
+    }
+
+    private static int index(Command command) {
+        return switch (command) {
+            case AddTaskCommand add -> 0;
+            case RemoveTaskCommand remove -> 1;
+            case UpdateTaskCommand update -> 2;
+            case ChangeStatusCommand changeStatus -> 3;
+        };
+    }
+
+    /**
+     * Returns the index of the command type with the given {@link CommandCodec} opcode;
+     * the types are listed in opcode order.
+     */
+    static int index(byte opcode) {
+        return opcode - CommandCodec.ADD;
+    }
+
+    void recordSuccess(Command command, long nanos) {
+        recordSuccess(index(command), nanos);
+    }
+
+    void recordSuccess(int i, long nanos) {
+        executions[i].increment();
+        latency[i].record(nanos);
+    }
+
+    void recordFailure(Command command, long nanos, RuntimeException failure) {
+        recordFailure(index(command), nanos, failure);
+    }
+
+    void recordFailure(int i, long nanos, RuntimeException failure) {
+        executions[i].increment();
+        failures[i].increment();
+        if (failure instanceof TaskNotFoundException) {
+            notFound[i].increment();
+        }
+        latency[i].record(nanos);
+    }
+
+    void recordCoalesced(int commands) {
+        coalesced.add(commands);
+    }
+
+    void recordDuplicate() {
+        duplicates.increment();
+    }
+
+    /**
+     * Returns current figures for every command type.
+     */
+    public List<CommandStats> stats() {
+        List<CommandStats> stats = new ArrayList<>(COMMANDS.length);
+        for (int i = 0; i < COMMANDS.length; i++) {
+            LatencyHistogram histogram = latency[i];
+            stats.add(new CommandStats(COMMANDS[i], executions[i].sum(), failures[i].sum(), notFound[i].sum(),
+                    histogram.valueAtPercentile(50), histogram.valueAtPercentile(90),
+                    histogram.valueAtPercentile(99), histogram.valueAtPercentile(99.9), histogram.max()));
+        }
+        return stats;
+    }
+
+    public LatencyHistogram latency(Class<? extends Command> type) {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            if (COMMANDS[i].equals(type.getSimpleName())) {
+                return latency[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown command type: " + type.getName());
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server under
+     * {@code edu.touro.las.mcon364.taskmanager:type=CommandMetrics,name=<name>}.
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(
+                    "edu.touro.las.mcon364.taskmanager:type=CommandMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("Metrics already registered as " + name, e);
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Cannot register metrics as " + name, e);
+        }
+    }
+
+    public void unregisterMBean(ObjectName objectName) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            // Already gone
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister " + objectName, e);
+        }
+    }
+
+    @Override
+    public long getExecutions() {
+        return sum(executions);
+    }
+
+    @Override
+    public long getFailures() {
+        return sum(failures);
+    }
+
+    @Override
+    public long getTaskNotFound() {
+        return sum(notFound);
+    }
+
+    @Override
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    @Override
+    public Map<String, Long> getExecutionsByCommand() {
+        return byCommand(CommandStats::executions);
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByCommand() {
+        return byCommand(CommandStats::failures);
+    }
+
+    @Override
+    public Map<String, Long> getP50NanosByCommand() {
+        return byCommand(CommandStats::p50Nanos);
+    }
+
+    @Override
+    public Map<String, Long> getP99NanosByCommand() {
+        return byCommand(CommandStats::p99Nanos);
+    }
+
+    @Override
+    public Map<String, Long> getP999NanosByCommand() {
+        return byCommand(CommandStats::p999Nanos);
+    }
+
+    @Override
+    public Map<String, Long> getMaxNanosByCommand() {
+        return byCommand(CommandStats::maxNanos);
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            latency[i].reset();
+            executions[i].reset();
+            failures[i].reset();
+            notFound[i].reset();
+        }
+        coalesced.reset();
+        duplicates.reset();
+    }
+
+    private Map<String, Long> byCommand(ToLongFunction<CommandStats> figure) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (CommandStats stats : stats()) {
+            result.put(stats.command(), figure.applyAsLong(stats));
+        }
+        return result;
+    }
+
+    private static long sum(LongAdder[] adders) {
+        long total = 0;
+        for (LongAdder adder : adders) {
+            total += adder.sum();
+        }
+        return total;
+    }
+}
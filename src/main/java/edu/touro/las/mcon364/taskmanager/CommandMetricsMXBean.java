@@ -0,0 +1,38 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link CommandMetrics}. Per-command maps are keyed by command class name.
+ */
+public interface CommandMetricsMXBean {
+    long getExecutions();
+
+    long getFailures();
+
+    long getTaskNotFound();
+
+    /**
+     * Commands that coalescing merged into later ones instead of executing.
+     */
+    long getCoalesced();
+
+    /**
+     * Commands skipped because their request ID had already been applied.
+     */
+    long getDuplicates();
+
+    Map<String, Long> getExecutionsByCommand();
+
+    Map<String, Long> getFailuresByCommand();
+
+    Map<String, Long> getP50NanosByCommand();
+
+    Map<String, Long> getP99NanosByCommand();
+
+    Map<String, Long> getP999NanosByCommand();
+
+    Map<String, Long> getMaxNanosByCommand();
+
+    void reset();
+}
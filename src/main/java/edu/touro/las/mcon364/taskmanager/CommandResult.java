@@ -0,0 +1,21 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.Optional;
+
+/**
+ * Outcome of one command in a batch run by {@link TaskManager#runAll}.
+ */
+public record CommandResult(Command command, Optional<RuntimeException> failure) {
+
+    static CommandResult success(Command command) {
+        return new CommandResult(command, Optional.empty());
+    }
+
+    static CommandResult failed(Command command, RuntimeException failure) {
+        return new CommandResult(command, Optional.of(failure));
+    }
+
+    public boolean succeeded() {
+        return failure.isEmpty();
+    }
+}
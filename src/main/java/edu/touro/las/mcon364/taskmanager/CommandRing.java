@@ -0,0 +1,202 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Low-allocation submission path for a {@link TaskManager}, for a thread that issues
+ * commands faster than it should create {@link Command} objects for them. Task names are
+ * interned once into int IDs with {@link #nameId}; each command is then written into a
+ * pre-allocated ring as one {@code long} holding its opcode, priority or status ordinal
+ * and name ID, and {@link #flush} decodes the entries in place and applies them. The
+ * {@link Task} an add or update stores is built once per name and priority and reused,
+ * so in steady state submitting and applying commands allocates nothing.
+ * <p>
+ * A flush applies the entries like {@link TaskManager#runAll}: grouped by registry lock
+ * stripe, each stripe locked once, commands on the same task in submission order, and
+ * one journal sync for the batch. A full ring is flushed before the next command is
+ * written. Commands are metered, recorded for undo and journaled like any others;
+ * journaling still encodes each record.
+ * <p>
+ * Interned names stay interned for the life of the ring, so it suits a recurring set of
+ * names. Not thread-safe; give each submitting thread its own ring.
+ */
+public final class CommandRing {
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final int OPCODE_SHIFT = 40;
+    private static final int ARGUMENT_SHIFT = 32;
+
+    private final TaskManager manager;
+    private final TaskRegistry registry;
+    private final NameDictionary names = new NameDictionary();
+    // Per name ID: its registry stripe, and its task at each priority once one is needed
+    private int[] stripes = new int[16];
+    private Task[] tasks = new Task[16 * PRIORITIES.length];
+
+    // Each entry is opcode << 40 | unsigned argument << 32 | name ID
+    private final long[] entries;
+    private int count;
+    private int failed;
+
+    // Scratch space for the counting sort in flush
+    private final int[] start;
+    private final int[] next;
+    private final int[] order;
+
+    CommandRing(TaskManager manager, TaskRegistry registry, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.manager = manager;
+        this.registry = registry;
+        this.entries = new long[capacity];
+        this.order = new int[capacity];
+        this.start = new int[registry.stripeCount() + 1];
+        this.next = new int[registry.stripeCount()];
+    }
+
+    /**
+     * Returns the ID of {@code name}, interning it on first use.
+     */
+    public int nameId(String name) {
+        int id = names.intern(name);
+        if (id >= stripes.length) {
+            stripes = Arrays.copyOf(stripes, Math.max(id + 1, stripes.length * 2));
+            tasks = Arrays.copyOf(tasks, stripes.length * PRIORITIES.length);
+        }
+        stripes[id] = registry.stripe(name);
+        return id;
+    }
+
+    /**
+     * Returns the name interned under {@code nameId}.
+     */
+    public String name(int nameId) {
+        String name = names.name(nameId);
+        if (name == null) {
+            throw new IllegalArgumentException("Unknown name ID: " + nameId);
+        }
+        return name;
+    }
+
+    public void add(int nameId, Priority priority) {
+        task(nameId, priority);
+        write(CommandCodec.ADD, (byte) priority.ordinal(), nameId);
+    }
+
+    public void remove(int nameId) {
+        name(nameId);
+        write(CommandCodec.REMOVE, CommandCodec.NO_ARGUMENT, nameId);
+    }
+
+    public void update(int nameId, Priority priority) {
+        task(nameId, priority);
+        write(CommandCodec.UPDATE, (byte) priority.ordinal(), nameId);
+    }
+
+    public void changeStatus(int nameId, Status status) {
+        name(nameId);
+        write(CommandCodec.CHANGE_STATUS, (byte) status.ordinal(), nameId);
+    }
+
+    /**
+     * Returns the number of commands written since the last flush.
+     */
+    public int pending() {
+        return count;
+    }
+
+    /**
+     * Applies every pending command and returns how many commands failed since the last
+     * call, including any in flushes forced by a full ring. A failing command does not
+     * stop the rest; the manager's {@link CommandMetrics} tell what went wrong.
+     * <p>
+     * If the flush itself throws, say because the journal cannot be written, the command
+     * it was running and every one not yet run are dropped and counted as failed in the
+     * next call's result. The command it was running may already have been applied.
+     */
+    public int flush() {
+        drain();
+        int result = failed;
+        failed = 0;
+        return result;
+    }
+
+    private void write(byte opcode, byte argument, int nameId) {
+        if (count == entries.length) {
+            drain();
+        }
+        entries[count++] = (long) opcode << OPCODE_SHIFT | (long) (argument & 0xFF) << ARGUMENT_SHIFT | nameId;
+    }
+
+    private Task task(int nameId, Priority priority) {
+        int slot = nameId * PRIORITIES.length + priority.ordinal();
+        Task task = tasks[slot];
+        if (task == null) {
+            task = new Task(name(nameId), priority);
+            tasks[slot] = task;
+        }
+        return task;
+    }
+
+    private void drain() {
+        if (count == 0) {
+            return;
+        }
+        // Counting sort of the entry positions by stripe, stable within each stripe
+        int stripeCount = next.length;
+        Arrays.fill(start, 0);
+        for (int i = 0; i < count; i++) {
+            start[stripes[nameIdOf(entries[i])] + 1]++;
+        }
+        for (int s = 0; s < stripeCount; s++) {
+            start[s + 1] += start[s];
+        }
+        System.arraycopy(start, 0, next, 0, stripeCount);
+        for (int i = 0; i < count; i++) {
+            order[next[stripes[nameIdOf(entries[i])]]++] = i;
+        }
+
+        long lastSequence = 0;
+        int done = 0;
+        try {
+            for (int s = 0; s < stripeCount; s++) {
+                if (start[s] == start[s + 1]) {
+                    continue;
+                }
+                Lock lock = registry.lockFor(names.name(nameIdOf(entries[order[start[s]]])));
+                lock.lock();
+                try {
+                    for (int k = start[s]; k < start[s + 1]; k++) {
+                        long entry = entries[order[k]];
+                        byte opcode = (byte) (entry >>> OPCODE_SHIFT);
+                        byte argument = (byte) (entry >>> ARGUMENT_SHIFT);
+                        int nameId = nameIdOf(entry);
+                        Task task = opcode == CommandCodec.ADD || opcode == CommandCodec.UPDATE
+                                ? tasks[nameId * PRIORITIES.length + argument]
+                                : null;
+                        long sequence = manager.runEncoded(opcode, argument, names.name(nameId), task);
+                        if (sequence < 0) {
+                            failed++;
+                        } else if (sequence > 0) {
+                            lastSequence = sequence;
+                        }
+                        done++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            failed += count - done;
+            throw e;
+        } finally {
+            count = 0;
+        }
+        manager.awaitDurable(lastSequence);
+    }
+
+    private static int nameIdOf(long entry) {
+        return (int) entry;
+    }
+}
@@ -0,0 +1,7 @@
+package edu.touro.las.mcon364.taskmanager;
+
+/**
+ * Point-in-time figures for one command type, read from {@link CommandMetrics}.
+ */
+public record CommandStats(String command, long executions, long failures, long taskNotFound,
+                           long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos, long maxNanos) {}
@@ -0,0 +1,83 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Default {@link TaskStore}, a {@link ConcurrentHashMap} from name to task and status.
+ */
+public final class ConcurrentTaskStore implements TaskStore {
+    private record Entry(Task task, Status status) {}
+
+    // Only replaced by ensureCapacity while empty and with every stripe locked
+    private volatile Map<String, Entry> tasks = new ConcurrentHashMap<>();
+
+    @Override
+    public Task put(Task task) {
+        Task[] previous = new Task[1];
+        tasks.compute(task.name(), (name, old) -> {
+            if (old == null) {
+                return new Entry(task, Status.TODO);
+            }
+            previous[0] = old.task();
+            return new Entry(task, old.status());
+        });
+        return previous[0];
+    }
+
+    @Override
+    public Task get(String name) {
+        Entry entry = tasks.get(name);
+        return entry == null ? null : entry.task();
+    }
+
+    @Override
+    public Task remove(String name) {
+        Entry entry = tasks.remove(name);
+        return entry == null ? null : entry.task();
+    }
+
+    @Override
+    public Status getStatus(String name) {
+        Entry entry = tasks.get(name);
+        return entry == null ? null : entry.status();
+    }
+
+    @Override
+    public byte getState(String name) {
+        Entry entry = tasks.get(name);
+        return entry == null ? -1 : (byte) (entry.status().ordinal() << 2 | entry.task().priority().ordinal());
+    }
+
+    @Override
+    public Status setStatus(String name, Status status) {
+        Status[] previous = new Status[1];
+        tasks.computeIfPresent(name, (key, old) -> {
+            previous[0] = old.status();
+            return old.status() == status ? old : new Entry(old.task(), status);
+        });
+        return previous[0];
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    /**
+     * Swaps in a table presized for {@code expectedSize} tasks if the store is still
+     * empty; a populated table keeps growing on its own.
+     */
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        if (tasks.isEmpty() && expectedSize > 16) {
+            tasks = new ConcurrentHashMap<>(expectedSize);
+        }
+    }
+
+    @Override
+    public void forEachEntry(BiConsumer<Task, Status> action) {
+        tasks.values().forEach(entry -> action.accept(entry.task(), entry.status()));
+    }
+}
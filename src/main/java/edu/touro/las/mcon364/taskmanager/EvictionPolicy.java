@@ -0,0 +1,43 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.function.Consumer;
+
+/**
+ * Decides which names a {@link CachingTaskStore} keeps once it is full. A policy tracks
+ * the names of one cache segment and never holds more than the capacity it was built
+ * for. Calls come under the segment's lock, so implementations need not be thread-safe.
+ */
+public interface EvictionPolicy {
+
+    /**
+     * Creates a least-recently-used policy.
+     */
+    static EvictionPolicy lru(int capacity) {
+        return new LruPolicy(capacity);
+    }
+
+    /**
+     * Creates a frequency-aware W-TinyLFU policy, which resists scans and one-off
+     * lookups that would flush an LRU cache.
+     */
+    static EvictionPolicy tinyLfu(int capacity) {
+        return new TinyLfuPolicy(capacity);
+    }
+
+    /**
+     * A lookup found {@code name} in the cache.
+     */
+    void onHit(String name);
+
+    /**
+     * {@code name} was loaded into the cache after a miss. Passes each name that must
+     * now leave the cache to {@code evict}, possibly {@code name} itself if the policy
+     * declines to admit it.
+     */
+    void onInsert(String name, Consumer<String> evict);
+
+    /**
+     * {@code name} left the cache for a reason other than eviction.
+     */
+    void onRemove(String name);
+}
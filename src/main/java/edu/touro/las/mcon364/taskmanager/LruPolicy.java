@@ -0,0 +1,42 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Least-recently-used {@link EvictionPolicy}: an access-ordered linked map whose eldest
+ * name is the next to go.
+ */
+final class LruPolicy implements EvictionPolicy {
+    private final int capacity;
+    private final LinkedHashMap<String, Boolean> order;
+
+    LruPolicy(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.order = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public void onHit(String name) {
+        order.get(name);
+    }
+
+    @Override
+    public void onInsert(String name, Consumer<String> evict) {
+        order.put(name, Boolean.TRUE);
+        if (order.size() > capacity) {
+            Map.Entry<String, Boolean> eldest = order.entrySet().iterator().next();
+            order.remove(eldest.getKey());
+            evict.accept(eldest.getKey());
+        }
+    }
+
+    @Override
+    public void onRemove(String name) {
+        order.remove(name);
+    }
+}
@@ -0,0 +1,178 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.Arrays;
+
+/**
+ * Interns task names into small, dense int IDs. Names are found through a
+ * linear-probing table of parallel {@code int} arrays holding each slot's cached hash
+ * and ID, so a lookup touches one or two cache lines before the final
+ * {@link String#equals}. Released IDs are reused, keeping the ID range as small as
+ * the number of live names. Not thread-safe; callers synchronize.
+ */
+public final class NameDictionary {
+    private static final int EMPTY = -1;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] slotHashes;
+    private int[] slotIds;
+    private String[] names;
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+    private int size;
+
+    public NameDictionary() {
+        this(16);
+    }
+
+    public NameDictionary(int expectedSize) {
+        int slots = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        slotHashes = new int[slots];
+        slotIds = new int[slots];
+        Arrays.fill(slotIds, EMPTY);
+        names = new String[Math.max(16, expectedSize)];
+    }
+
+    /**
+     * Returns the ID of {@code name}, assigning a new one if it is not interned yet.
+     */
+    public int intern(String name) {
+        int hash = spread(name.hashCode());
+        int mask = slotIds.length - 1;
+        int slot = hash & mask;
+        while (slotIds[slot] != EMPTY) {
+            if (slotHashes[slot] == hash && names[slotIds[slot]].equals(name)) {
+                return slotIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, names.length * 2);
+        }
+        names[id] = name;
+        slotHashes[slot] = hash;
+        slotIds[slot] = id;
+        if (++size > slotIds.length * LOAD_FACTOR) {
+            rehash(slotIds.length * 2);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the ID of {@code name}, or -1 if it is not interned.
+     */
+    public int idOf(String name) {
+        int hash = spread(name.hashCode());
+        int mask = slotIds.length - 1;
+        for (int slot = hash & mask; slotIds[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (slotHashes[slot] == hash && names[slotIds[slot]].equals(name)) {
+                return slotIds[slot];
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Returns the name interned under {@code id}, or {@code null} if the ID is free.
+     */
+    public String name(int id) {
+        return id >= 0 && id < names.length ? names[id] : null;
+    }
+
+    /**
+     * Forgets {@code name} and makes its ID available for reuse. Returns the released
+     * ID, or -1 if the name was not interned.
+     */
+    public int release(String name) {
+        int hash = spread(name.hashCode());
+        int mask = slotIds.length - 1;
+        int slot = hash & mask;
+        while (slotIds[slot] != EMPTY) {
+            if (slotHashes[slot] == hash && names[slotIds[slot]].equals(name)) {
+                int id = slotIds[slot];
+                names[id] = null;
+                if (freeCount == freeIds.length) {
+                    freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+                }
+                freeIds[freeCount++] = id;
+                size--;
+                deleteSlot(slot);
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Grows the tables so that {@code expectedSize} names fit without a rehash.
+     */
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > slotIds.length * LOAD_FACTOR) {
+            rehash(Integer.highestOneBit((int) Math.min(1 << 29, (long) (expectedSize / LOAD_FACTOR))) << 1);
+        }
+        if (expectedSize > names.length) {
+            names = Arrays.copyOf(names, expectedSize);
+        }
+    }
+
+    /**
+     * One past the highest ID handed out so far; every live ID is below this.
+     */
+    public int idLimit() {
+        return nextId;
+    }
+
+    /**
+     * Backward-shift deletion: pulls later entries of the probe run into the hole so
+     * lookups never need tombstones.
+     */
+    private void deleteSlot(int hole) {
+        int mask = slotIds.length - 1;
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (slotIds[slot] == EMPTY) {
+                break;
+            }
+            int home = slotHashes[slot] & mask;
+            // Move the entry back only if its home is not cyclically inside (hole, slot]
+            boolean between = hole <= slot ? hole < home && home <= slot : hole < home || home <= slot;
+            if (!between) {
+                slotHashes[hole] = slotHashes[slot];
+                slotIds[hole] = slotIds[slot];
+                hole = slot;
+            }
+        }
+        slotIds[hole] = EMPTY;
+    }
+
+    private void rehash(int slots) {
+        // Build the new table aside so a racing optimistic reader never sees it half filled
+        int[] hashes = new int[slots];
+        int[] ids = new int[slots];
+        Arrays.fill(ids, EMPTY);
+        int mask = slots - 1;
+        for (int i = 0; i < slotIds.length; i++) {
+            if (slotIds[i] != EMPTY) {
+                int slot = slotHashes[i] & mask;
+                while (ids[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = slotHashes[i];
+                ids[slot] = slotIds[i];
+            }
+        }
+        slotHashes = hashes;
+        slotIds = ids;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,276 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive search over task names. A trie answers prefix queries in name
+ * order, and a gram index maps every 1- to 3-character substring to the names
+ * containing it. A longer substring query scans only the postings of its rarest
+ * trigram. Query cost depends on the query and the number of matches, not on how
+ * many tasks the registry holds.
+ */
+final class NameSearchIndex implements TaskIndex {
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<String, Set<String>> grams = new HashMap<>();
+
+    private static final class Node {
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        // Names whose normalized form ends here; names can differ only by case
+        TreeSet<String> names;
+        // Names stored in this subtree, so empty branches can be pruned
+        int count;
+    }
+
+    @Override
+    public void onPut(Task previous, Task current) {
+        if (previous == null) {
+            add(current.name());
+        }
+    }
+
+    @Override
+    public void onRemove(Task previous) {
+        remove(previous.name());
+    }
+
+    void add(String name) {
+        String key = normalize(name);
+        lock.writeLock().lock();
+        try {
+            Node node = root;
+            Deque<Node> path = new ArrayDeque<>();
+            path.push(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                path.push(node);
+            }
+            if (node.names == null) {
+                node.names = new TreeSet<>();
+            }
+            if (!node.names.add(name)) {
+                return;
+            }
+            for (Node onPath : path) {
+                onPath.count++;
+            }
+            for (String gram : gramsOf(key)) {
+                grams.computeIfAbsent(gram, g -> new HashSet<>()).add(name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String name) {
+        String key = normalize(name);
+        lock.writeLock().lock();
+        try {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length(); i++) {
+                path[i + 1] = path[i].children.get(key.charAt(i));
+                if (path[i + 1] == null) {
+                    return;
+                }
+            }
+            Node end = path[key.length()];
+            if (end.names == null || !end.names.remove(name)) {
+                return;
+            }
+            if (end.names.isEmpty()) {
+                end.names = null;
+            }
+            for (int i = key.length(); i >= 0; i--) {
+                if (--path[i].count == 0 && i > 0) {
+                    path[i - 1].children.remove(key.charAt(i - 1));
+                }
+            }
+            for (String gram : gramsOf(key)) {
+                Set<String> postings = grams.get(gram);
+                postings.remove(name);
+                if (postings.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} names starting with {@code prefix}, ignoring case, in
+     * name order.
+     */
+    List<String> prefix(String prefix, int limit) {
+        return prefix(prefix, null, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} names starting with {@code prefix} that come after
+     * {@code after} in name order, or from the first match if {@code after} is null.
+     * Passing the last name of one page fetches the next, so callers can walk a large
+     * prefix without holding the index lock in between.
+     */
+    List<String> prefix(String prefix, String after, int limit) {
+        String key = normalize(prefix);
+        List<String> result = new ArrayList<>(Math.min(limit, 64));
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return result;
+            }
+            if (after == null) {
+                collect(node, limit, result);
+            } else {
+                collectAfter(node, key.length(), normalize(after), after, limit, result);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Returns how many names start with {@code prefix}, ignoring case, in time
+     * proportional to the prefix length.
+     */
+    int countPrefix(String prefix) {
+        lock.readLock().lock();
+        try {
+            Node node = find(normalize(prefix));
+            return node == null ? 0 : node.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static void collect(Node node, int limit, List<String> result) {
+        if (node.names != null) {
+            for (String name : node.names) {
+                if (result.size() == limit) {
+                    return;
+                }
+                result.add(name);
+            }
+        }
+        for (Node child : node.children.values()) {
+            if (result.size() == limit) {
+                return;
+            }
+            collect(child, limit, result);
+        }
+    }
+
+    // Walks the path of afterKey: branches before it are skipped, branches after it
+    // are collected whole. Names ending above afterKey's node sort before it.
+    private static void collectAfter(Node node, int depth, String afterKey, String after,
+                                     int limit, List<String> result) {
+        if (depth == afterKey.length()) {
+            if (node.names != null) {
+                for (String name : node.names.tailSet(after, false)) {
+                    if (result.size() == limit) {
+                        return;
+                    }
+                    result.add(name);
+                }
+            }
+            for (Node child : node.children.values()) {
+                if (result.size() == limit) {
+                    return;
+                }
+                collect(child, limit, result);
+            }
+            return;
+        }
+        char next = afterKey.charAt(depth);
+        for (Map.Entry<Character, Node> child : node.children.tailMap(next, true).entrySet()) {
+            if (result.size() == limit) {
+                return;
+            }
+            if (child.getKey() == next) {
+                collectAfter(child.getValue(), depth + 1, afterKey, after, limit, result);
+            } else {
+                collect(child.getValue(), limit, result);
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} names containing {@code text}, ignoring case, in no
+     * particular order.
+     */
+    List<String> substring(String text, int limit) {
+        String key = normalize(text);
+        List<String> result = new ArrayList<>(Math.min(limit, 64));
+        if (key.isEmpty()) {
+            return prefix("", limit);
+        }
+        lock.readLock().lock();
+        try {
+            Set<String> candidates;
+            if (key.length() <= GRAM) {
+                candidates = grams.getOrDefault(key, Set.of());
+            } else {
+                candidates = null;
+                for (int i = 0; i + GRAM <= key.length(); i++) {
+                    Set<String> postings = grams.get(key.substring(i, i + GRAM));
+                    if (postings == null) {
+                        return result;
+                    }
+                    if (candidates == null || postings.size() < candidates.size()) {
+                        candidates = postings;
+                    }
+                }
+            }
+            boolean verify = key.length() > GRAM;
+            for (Iterator<String> it = candidates.iterator(); it.hasNext() && result.size() < limit; ) {
+                String name = it.next();
+                if (!verify || normalize(name).contains(key)) {
+                    result.add(name);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private static Set<String> gramsOf(String key) {
+        Set<String> result = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= key.length(); i++) {
+                result.add(key.substring(i, i + length));
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
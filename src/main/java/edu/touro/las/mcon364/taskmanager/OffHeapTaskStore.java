@@ -0,0 +1,424 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link TaskStore} that keeps every task outside the Java heap, so the garbage
+ * collector sees a handful of buffers however many tasks are stored.
+ * <p>
+ * Records are appended to direct {@link ByteBuffer} slabs as
+ * {@code [short nameLength][byte status << 2 | priority][name UTF-8]}. They are found through an
+ * off-heap linear-probing table of 16-byte entries {@code [int hash][int unused][long address + 1]},
+ * where an address packs the slab number and offset. Priority and status changes are
+ * written in place; removed records become garbage that is reclaimed by compacting the slabs once
+ * it outweighs the live data. {@link Task} objects are created only on read.
+ * <p>
+ * Writes are exclusive. Reads are optimistic and lock-free unless they race a write,
+ * in which case they retry under the read lock.
+ */
+public final class OffHeapTaskStore implements TaskStore {
+    private static final int DEFAULT_SLAB_BYTES = 1 << 20;
+    private static final int ENTRY_BYTES = 16;
+    private static final int MAX_INDEX_ENTRIES = 1 << 26;
+    private static final float LOAD_FACTOR = 0.7f;
+    private static final int RECORD_HEADER_BYTES = Short.BYTES + 1;
+    private static final byte REMOVED = -1;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final StampedLock lock = new StampedLock();
+    private final int slabBytes;
+
+    // Guarded by lock; replaced wholesale rather than resized so optimistic readers stay safe
+    private List<ByteBuffer> slabs = new ArrayList<>();
+    private ByteBuffer index;
+    private int indexEntries;
+    private int size;
+    private int writeOffset;
+    private long liveBytes;
+    private long garbageBytes;
+
+    public OffHeapTaskStore() {
+        this(1024, DEFAULT_SLAB_BYTES);
+    }
+
+    /**
+     * @param expectedSize number of tasks to size the index for up front
+     * @param slabBytes    size of each record slab
+     */
+    public OffHeapTaskStore(int expectedSize, int slabBytes) {
+        if (slabBytes < RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Slab too small: " + slabBytes);
+        }
+        this.slabBytes = slabBytes;
+        this.indexEntries = entriesFor(expectedSize);
+        this.index = ByteBuffer.allocateDirect(indexEntries * ENTRY_BYTES);
+    }
+
+    @Override
+    public Task put(Task task) {
+        String name = task.name();
+        byte[] bytes = encode(name);
+        int hash = spread(name.hashCode());
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(index, indexEntries, bytes, hash);
+            long address = index.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2) - 1;
+            if (address >= 0) {
+                ByteBuffer slab = slabs.get(slabOf(address));
+                int entryAt = offsetOf(address) + Short.BYTES;
+                byte previous = slab.get(entryAt);
+                slab.put(entryAt, pack(task.priority(), STATUSES[previous >> 2]));
+                return new Task(name, PRIORITIES[previous & 3]);
+            }
+
+            address = append(bytes, pack(task.priority(), Status.TODO));
+            index.putInt(slot * ENTRY_BYTES, hash);
+            index.putLong(slot * ENTRY_BYTES + Integer.BYTES * 2, address + 1);
+            if (++size > indexEntries * LOAD_FACTOR) {
+                growIndex();
+            }
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task get(String name) {
+        byte[] bytes = encode(name);
+        int hash = spread(name.hashCode());
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Task task = read(name, bytes, hash);
+                if (lock.validate(stamp)) {
+                    return task;
+                }
+            } catch (RuntimeException e) {
+                // Saw the buffers mid-write; fall through and read under the lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read(name, bytes, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Task read(String name, byte[] bytes, int hash) {
+        ByteBuffer table = index;
+        int slot = find(table, indexEntries, bytes, hash);
+        long address = table.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2) - 1;
+        if (address < 0) {
+            return null;
+        }
+        byte entry = slabs.get(slabOf(address)).get(offsetOf(address) + Short.BYTES);
+        return new Task(name, PRIORITIES[entry & 3]);
+    }
+
+    @Override
+    public Task remove(String name) {
+        byte[] bytes = encode(name);
+        int hash = spread(name.hashCode());
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(index, indexEntries, bytes, hash);
+            long address = index.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2) - 1;
+            if (address < 0) {
+                return null;
+            }
+            ByteBuffer slab = slabs.get(slabOf(address));
+            int entryAt = offsetOf(address) + Short.BYTES;
+            byte previous = slab.get(entryAt);
+            slab.put(entryAt, REMOVED);
+            deleteSlot(slot);
+            size--;
+            int recordBytes = RECORD_HEADER_BYTES + bytes.length;
+            liveBytes -= recordBytes;
+            garbageBytes += recordBytes;
+            if (garbageBytes > slabBytes && garbageBytes > liveBytes) {
+                compact();
+            }
+            return new Task(name, PRIORITIES[previous & 3]);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Status getStatus(String name) {
+        byte[] bytes = encode(name);
+        int hash = spread(name.hashCode());
+        long stamp = lock.readLock();
+        try {
+            int slot = find(index, indexEntries, bytes, hash);
+            long address = index.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2) - 1;
+            return address < 0 ? null : STATUSES[slabs.get(slabOf(address)).get(offsetOf(address) + Short.BYTES) >> 2];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * One index probe and no {@link Task}, though the name is still encoded to compare it.
+     */
+    @Override
+    public byte getState(String name) {
+        byte[] bytes = encode(name);
+        int hash = spread(name.hashCode());
+        long stamp = lock.readLock();
+        try {
+            int slot = find(index, indexEntries, bytes, hash);
+            long address = index.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2) - 1;
+            return address < 0 ? -1 : slabs.get(slabOf(address)).get(offsetOf(address) + Short.BYTES);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Status setStatus(String name, Status status) {
+        byte[] bytes = encode(name);
+        int hash = spread(name.hashCode());
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(index, indexEntries, bytes, hash);
+            long address = index.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2) - 1;
+            if (address < 0) {
+                return null;
+            }
+            ByteBuffer slab = slabs.get(slabOf(address));
+            int entryAt = offsetOf(address) + Short.BYTES;
+            byte previous = slab.get(entryAt);
+            slab.put(entryAt, pack(PRIORITIES[previous & 3], status));
+            return STATUSES[previous >> 2];
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Grows the index up front; slabs are still allocated as records arrive.
+     */
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        long stamp = lock.writeLock();
+        try {
+            int wanted = entriesFor(expectedSize);
+            while (indexEntries < wanted) {
+                growIndex();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void forEachEntry(BiConsumer<Task, Status> action) {
+        long stamp = lock.readLock();
+        try {
+            for (int slot = 0; slot < indexEntries; slot++) {
+                long address = index.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2) - 1;
+                if (address >= 0) {
+                    byte entry = slabs.get(slabOf(address)).get(offsetOf(address) + Short.BYTES);
+                    action.accept(materialize(address), STATUSES[entry >> 2]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Bytes held off-heap by record slabs and the index together.
+     */
+    public long offHeapBytes() {
+        long stamp = lock.readLock();
+        try {
+            long total = index.capacity();
+            for (ByteBuffer slab : slabs) {
+                total += slab.capacity();
+            }
+            return total;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Task materialize(long address) {
+        ByteBuffer slab = slabs.get(slabOf(address));
+        int offset = offsetOf(address);
+        int length = Short.toUnsignedInt(slab.getShort(offset));
+        byte[] name = new byte[length];
+        slab.get(offset + RECORD_HEADER_BYTES, name);
+        return new Task(new String(name, StandardCharsets.UTF_8), PRIORITIES[slab.get(offset + Short.BYTES) & 3]);
+    }
+
+    /**
+     * Returns the slot holding {@code name}, or the empty slot where it would go.
+     */
+    private int find(ByteBuffer table, int entries, byte[] name, int hash) {
+        int mask = entries - 1;
+        int slot = hash & mask;
+        for (int probes = 0; probes < entries; probes++) {
+            long address = table.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2) - 1;
+            if (address < 0 || (table.getInt(slot * ENTRY_BYTES) == hash && nameEquals(address, name))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        throw new IllegalStateException("Index full");
+    }
+
+    private boolean nameEquals(long address, byte[] name) {
+        ByteBuffer slab = slabs.get(slabOf(address));
+        int offset = offsetOf(address);
+        if (Short.toUnsignedInt(slab.getShort(offset)) != name.length) {
+            return false;
+        }
+        int start = offset + RECORD_HEADER_BYTES;
+        for (int i = 0; i < name.length; i++) {
+            if (slab.get(start + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long append(byte[] name, byte entry) {
+        int recordBytes = RECORD_HEADER_BYTES + name.length;
+        ByteBuffer slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+        if (slab == null || slab.capacity() - writeOffset < recordBytes) {
+            slab = ByteBuffer.allocateDirect(Math.max(slabBytes, recordBytes));
+            List<ByteBuffer> grown = new ArrayList<>(slabs);
+            grown.add(slab);
+            slabs = grown;
+            writeOffset = 0;
+        }
+        long address = ((long) (slabs.size() - 1) << 32) | writeOffset;
+        slab.putShort(writeOffset, (short) name.length);
+        slab.put(writeOffset + Short.BYTES, entry);
+        slab.put(writeOffset + RECORD_HEADER_BYTES, name);
+        writeOffset += recordBytes;
+        liveBytes += recordBytes;
+        return address;
+    }
+
+    /**
+     * Backward-shift deletion: pulls later entries of the probe run into the hole so
+     * lookups never need tombstones.
+     */
+    private void deleteSlot(int hole) {
+        int mask = indexEntries - 1;
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long stored = index.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2);
+            if (stored == 0) {
+                break;
+            }
+            int hash = index.getInt(slot * ENTRY_BYTES);
+            int home = hash & mask;
+            boolean between = hole <= slot ? hole < home && home <= slot : hole < home || home <= slot;
+            if (!between) {
+                index.putInt(hole * ENTRY_BYTES, hash);
+                index.putLong(hole * ENTRY_BYTES + Integer.BYTES * 2, stored);
+                hole = slot;
+            }
+        }
+        index.putLong(hole * ENTRY_BYTES + Integer.BYTES * 2, 0);
+    }
+
+    private void growIndex() {
+        if (indexEntries >= MAX_INDEX_ENTRIES) {
+            throw new IllegalStateException("Off-heap index cannot grow past " + MAX_INDEX_ENTRIES + " entries");
+        }
+        int entries = indexEntries * 2;
+        int mask = entries - 1;
+        ByteBuffer grown = ByteBuffer.allocateDirect(entries * ENTRY_BYTES);
+        for (int slot = 0; slot < indexEntries; slot++) {
+            long stored = index.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2);
+            if (stored != 0) {
+                int hash = index.getInt(slot * ENTRY_BYTES);
+                int target = hash & mask;
+                while (grown.getLong(target * ENTRY_BYTES + Integer.BYTES * 2) != 0) {
+                    target = (target + 1) & mask;
+                }
+                grown.putInt(target * ENTRY_BYTES, hash);
+                grown.putLong(target * ENTRY_BYTES + Integer.BYTES * 2, stored);
+            }
+        }
+        // Publish the table before its size so a racing reader never probes past its end
+        index = grown;
+        indexEntries = entries;
+    }
+
+    /**
+     * Copies every live record into fresh slabs and repoints the index at the copies.
+     * Index entries keep their slots because their hashes do not change.
+     */
+    private void compact() {
+        List<ByteBuffer> old = slabs;
+        slabs = new ArrayList<>();
+        writeOffset = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        for (int slot = 0; slot < indexEntries; slot++) {
+            long address = index.getLong(slot * ENTRY_BYTES + Integer.BYTES * 2) - 1;
+            if (address >= 0) {
+                ByteBuffer slab = old.get(slabOf(address));
+                int offset = offsetOf(address);
+                byte[] name = new byte[Short.toUnsignedInt(slab.getShort(offset))];
+                slab.get(offset + RECORD_HEADER_BYTES, name);
+                long moved = append(name, slab.get(offset + Short.BYTES));
+                index.putLong(slot * ENTRY_BYTES + Integer.BYTES * 2, moved + 1);
+            }
+        }
+    }
+
+    private static byte pack(Priority priority, Status status) {
+        return (byte) (status.ordinal() << 2 | priority.ordinal());
+    }
+
+    private static byte[] encode(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > CommandCodec.MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Task name too long to store off-heap: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int entriesFor(int expectedSize) {
+        int wanted = (int) Math.min(MAX_INDEX_ENTRIES, (long) (expectedSize / LOAD_FACTOR) + 1);
+        return Math.max(16, Integer.highestOneBit(wanted - 1) << 1);
+    }
+
+    private static int slabOf(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offsetOf(long address) {
+        return (int) address;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,207 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact {@link TaskStore}. Names are interned into dense int IDs by a
+ * {@link NameDictionary} and each task's priority and status share a single byte in an
+ * array indexed by ID, so a stored task costs a few array slots instead of a hash node
+ * plus a {@link Task} object. Tasks are materialized on read.
+ * <p>
+ * Writes are exclusive. Reads are optimistic and lock-free unless they race a write,
+ * in which case they retry under the read lock.
+ */
+public final class OpenAddressingTaskStore implements TaskStore {
+    private static final byte ABSENT = -1;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final StampedLock lock = new StampedLock();
+    private final NameDictionary names;
+    // Per ID: status ordinal << 2 | priority ordinal, or ABSENT
+    private byte[] entries;
+    private int size;
+
+    public OpenAddressingTaskStore() {
+        this(16);
+    }
+
+    public OpenAddressingTaskStore(int expectedSize) {
+        names = new NameDictionary(expectedSize);
+        entries = new byte[Math.max(16, expectedSize)];
+        Arrays.fill(entries, ABSENT);
+    }
+
+    @Override
+    public Task put(Task task) {
+        long stamp = lock.writeLock();
+        try {
+            int id = names.intern(task.name());
+            if (id >= entries.length) {
+                int oldLength = entries.length;
+                entries = Arrays.copyOf(entries, Math.max(id + 1, oldLength * 2));
+                Arrays.fill(entries, oldLength, entries.length, ABSENT);
+            }
+            byte previous = entries[id];
+            if (previous == ABSENT) {
+                entries[id] = pack(task.priority(), Status.TODO);
+                size++;
+                return null;
+            }
+            entries[id] = pack(task.priority(), STATUSES[previous >> 2]);
+            return new Task(names.name(id), PRIORITIES[previous & 3]);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task get(String name) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Task task = find(name);
+                if (lock.validate(stamp)) {
+                    return task;
+                }
+            } catch (RuntimeException e) {
+                // Saw the tables mid-write; fall through and read under the lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(name);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Task find(String name) {
+        int id = names.idOf(name);
+        if (id < 0) {
+            return null;
+        }
+        byte entry = entries[id];
+        return entry == ABSENT ? null : new Task(name, PRIORITIES[entry & 3]);
+    }
+
+    @Override
+    public Task remove(String name) {
+        long stamp = lock.writeLock();
+        try {
+            int id = names.release(name);
+            if (id < 0) {
+                return null;
+            }
+            byte previous = entries[id];
+            entries[id] = ABSENT;
+            size--;
+            return new Task(name, PRIORITIES[previous & 3]);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Status getStatus(String name) {
+        long stamp = lock.readLock();
+        try {
+            int id = names.idOf(name);
+            return id < 0 || entries[id] == ABSENT ? null : STATUSES[entries[id] >> 2];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Reads the packed byte directly, so unlike {@link #get} it allocates nothing.
+     */
+    @Override
+    public byte getState(String name) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                byte state = stateOf(name);
+                if (lock.validate(stamp)) {
+                    return state;
+                }
+            } catch (RuntimeException e) {
+                // Saw the tables mid-write; fall through and read under the lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return stateOf(name);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private byte stateOf(String name) {
+        int id = names.idOf(name);
+        return id < 0 ? ABSENT : entries[id];
+    }
+
+    @Override
+    public Status setStatus(String name, Status status) {
+        long stamp = lock.writeLock();
+        try {
+            int id = names.idOf(name);
+            if (id < 0 || entries[id] == ABSENT) {
+                return null;
+            }
+            byte previous = entries[id];
+            entries[id] = pack(PRIORITIES[previous & 3], status);
+            return STATUSES[previous >> 2];
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        long stamp = lock.writeLock();
+        try {
+            names.ensureCapacity(expectedSize);
+            if (expectedSize > entries.length) {
+                int oldLength = entries.length;
+                entries = Arrays.copyOf(entries, expectedSize);
+                Arrays.fill(entries, oldLength, entries.length, ABSENT);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void forEachEntry(BiConsumer<Task, Status> action) {
+        long stamp = lock.readLock();
+        try {
+            int limit = names.idLimit();
+            for (int id = 0; id < limit; id++) {
+                byte entry = entries[id];
+                if (entry != ABSENT) {
+                    action.accept(new Task(names.name(id), PRIORITIES[entry & 3]), STATUSES[entry >> 2]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static byte pack(Priority priority, Status status) {
+        return (byte) (status.ordinal() << 2 | priority.ordinal());
+    }
+}
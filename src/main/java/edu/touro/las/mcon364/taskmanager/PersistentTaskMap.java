@@ -0,0 +1,342 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map from task name to task and status, as a hash array mapped trie. Each
+ * level consumes five bits of the name's hash and stores only the occupied slots of its
+ * 32-way fan-out, indexed through a bitmap. An update copies the path from the root to
+ * the changed slot, at most seven small arrays, and shares everything else with the map
+ * it came from, so old versions stay valid and cost nothing to keep.
+ */
+final class PersistentTaskMap implements Iterable<PersistentTaskMap.Entry> {
+    static final PersistentTaskMap EMPTY = new PersistentTaskMap(new BitmapNode(0, new Object[0]));
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    record Entry(Task task, Status status) {
+        String name() {
+            return task.name();
+        }
+    }
+
+    private final BitmapNode root;
+
+    private PersistentTaskMap(BitmapNode root) {
+        this.root = root;
+    }
+
+    int size() {
+        return root.count;
+    }
+
+    /**
+     * Returns the entry stored under {@code name}, or {@code null}.
+     */
+    Entry get(String name) {
+        return root.get(name, hash(name), 0);
+    }
+
+    /**
+     * Returns a map that also holds {@code task} with {@code status}, replacing any entry
+     * of the same name.
+     */
+    PersistentTaskMap with(Task task, Status status) {
+        return new PersistentTaskMap((BitmapNode) root.put(new Entry(task, status), hash(task.name()), 0));
+    }
+
+    /**
+     * Returns a map without the entry stored under {@code name}, or this map if there is none.
+     */
+    PersistentTaskMap without(String name) {
+        Node updated = root.remove(name, hash(name), 0);
+        if (updated == root) {
+            return this;
+        }
+        return updated == null ? EMPTY : new PersistentTaskMap((BitmapNode) updated);
+    }
+
+    void forEach(BiConsumer<Task, Status> action) {
+        for (Entry entry : this) {
+            action.accept(entry.task(), entry.status());
+        }
+    }
+
+    @Override
+    public Iterator<Entry> iterator() {
+        return new EntryIterator(root);
+    }
+
+    private static int hash(String name) {
+        int h = name.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private abstract static sealed class Node permits BitmapNode, CollisionNode {
+        // Entries below this node, so size is free and counts stay exact across copies
+        final int count;
+
+        Node(int count) {
+            this.count = count;
+        }
+
+        abstract Entry get(String name, int hash, int shift);
+
+        abstract Node put(Entry entry, int hash, int shift);
+
+        /**
+         * Returns the node without {@code name}: this node if absent, {@code null} if the
+         * node would be empty.
+         */
+        abstract Node remove(String name, int hash, int shift);
+
+        /**
+         * Returns the only entry below this node, or {@code null} if it holds more or has
+         * sub-nodes, so a parent can inline it.
+         */
+        abstract Entry single();
+    }
+
+    private static final class BitmapNode extends Node {
+        final int bitmap;
+        // Each slot is an Entry or a Node, in bit order
+        final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            super(countSlots(slots));
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private static int countSlots(Object[] slots) {
+            int count = 0;
+            for (Object slot : slots) {
+                count += slot instanceof Node node ? node.count : 1;
+            }
+            return count;
+        }
+
+        @Override
+        Entry get(String name, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            if (slot instanceof Node node) {
+                return node.get(name, hash, shift + BITS);
+            }
+            Entry entry = (Entry) slot;
+            return entry.name().equals(name) ? entry : null;
+        }
+
+        @Override
+        Node put(Entry entry, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                copy[index] = entry;
+                System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Object slot = slots[index];
+            if (slot instanceof Node node) {
+                return with(index, node.put(entry, hash, shift + BITS));
+            }
+            Entry existing = (Entry) slot;
+            if (existing.name().equals(entry.name())) {
+                return with(index, entry);
+            }
+            return with(index, pair(existing, hash(existing.name()), entry, hash, shift + BITS));
+        }
+
+        @Override
+        Node remove(String name, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object slot = slots[index];
+            if (slot instanceof Node node) {
+                Node child = node.remove(name, hash, shift + BITS);
+                if (child == node) {
+                    return this;
+                }
+                if (child == null) {
+                    return without(bit, index);
+                }
+                Entry single = child.single();
+                return with(index, single != null ? single : child);
+            }
+            return ((Entry) slot).name().equals(name) ? without(bit, index) : this;
+        }
+
+        @Override
+        Entry single() {
+            return slots.length == 1 && slots[0] instanceof Entry entry ? entry : null;
+        }
+
+        private BitmapNode with(int index, Object slot) {
+            Object[] copy = slots.clone();
+            copy[index] = slot;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        private BitmapNode without(int bit, int index) {
+            if (slots.length == 1) {
+                return null;
+            }
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            System.arraycopy(slots, index + 1, copy, index, copy.length - index);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+    }
+
+    /**
+     * Entries whose names have the same full hash.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Entry[] entries;
+
+        CollisionNode(int hash, Entry[] entries) {
+            super(entries.length);
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        @Override
+        Entry get(String name, int hash, int shift) {
+            for (Entry entry : entries) {
+                if (entry.name().equals(name)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node put(Entry entry, int hash, int shift) {
+            if (hash != this.hash) {
+                return split(this, this.hash, entry, hash, shift);
+            }
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].name().equals(entry.name())) {
+                    Entry[] copy = entries.clone();
+                    copy[i] = entry;
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            Entry[] copy = Arrays.copyOf(entries, entries.length + 1);
+            copy[entries.length] = entry;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Node remove(String name, int hash, int shift) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].name().equals(name)) {
+                    if (entries.length == 1) {
+                        return null;
+                    }
+                    Entry[] copy = new Entry[entries.length - 1];
+                    System.arraycopy(entries, 0, copy, 0, i);
+                    System.arraycopy(entries, i + 1, copy, i, copy.length - i);
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Entry single() {
+            return entries.length == 1 ? entries[0] : null;
+        }
+    }
+
+    /**
+     * Builds the smallest sub-trie holding two entries with different names.
+     */
+    private static Node pair(Entry first, int firstHash, Entry second, int secondHash, int shift) {
+        if (firstHash == secondHash) {
+            return new CollisionNode(firstHash, new Entry[] {first, second});
+        }
+        return split(first, firstHash, second, secondHash, shift);
+    }
+
+    // Places two items whose hashes differ under a new bitmap node, nesting while their
+    // hash fragments agree. Differing hashes part by the last level at the latest.
+    private static Node split(Object first, int firstHash, Object second, int secondHash, int shift) {
+        int firstFragment = (firstHash >>> shift) & MASK;
+        int secondFragment = (secondHash >>> shift) & MASK;
+        if (firstFragment == secondFragment) {
+            return new BitmapNode(1 << firstFragment,
+                    new Object[] {split(first, firstHash, second, secondHash, shift + BITS)});
+        }
+        Object[] slots = firstFragment < secondFragment
+                ? new Object[] {first, second}
+                : new Object[] {second, first};
+        return new BitmapNode((1 << firstFragment) | (1 << secondFragment), slots);
+    }
+
+    private static final class EntryIterator implements Iterator<Entry> {
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Entry next;
+
+        EntryIterator(BitmapNode root) {
+            push(root);
+            advance();
+        }
+
+        private void push(Node node) {
+            arrays.push(node instanceof BitmapNode bitmap ? bitmap.slots : ((CollisionNode) node).entries);
+            positions.push(0);
+        }
+
+        private void advance() {
+            next = null;
+            while (!arrays.isEmpty()) {
+                Object[] array = arrays.peek();
+                int position = positions.pop();
+                if (position == array.length) {
+                    arrays.pop();
+                    continue;
+                }
+                positions.push(position + 1);
+                Object slot = array[position];
+                if (slot instanceof Node node) {
+                    push(node);
+                } else {
+                    next = (Entry) slot;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry result = next;
+            advance();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk snapshot of a registry's contents together with the journal sequence number
+ * it covers. The file is laid out as
+ * {@code [int magic][int version][long sequence][int count]{[short nameLength][name UTF-8][byte priority][byte status]}*[int crc32]}
+ * and is read back through a memory mapping, so loading does no read system calls. Version 1
+ * files, written before tasks had a status, have no status byte and load as TODO.
+ */
+final class RegistryCheckpoint {
+    private static final int MAGIC = 0x54534B43; // "TSKC"
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_STATUS = 1;
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES + Integer.BYTES;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private RegistryCheckpoint() {}
+
+    /**
+     * Writes a snapshot of {@code tasks} and their statuses covering the journal up to {@code sequence}. The
+     * file is written beside {@code path}, forced, and then atomically moved into place,
+     * so a crash leaves either the old snapshot or the new one.
+     */
+    static void write(Path path, long sequence, Map<Task, Status> tasks) {
+        List<byte[]> names = new ArrayList<>(tasks.size());
+        long size = HEADER_BYTES + Integer.BYTES;
+        for (Task task : tasks.keySet()) {
+            byte[] name = task.name().getBytes(StandardCharsets.UTF_8);
+            if (name.length > CommandCodec.MAX_NAME_BYTES) {
+                throw new IllegalArgumentException("Task name too long to snapshot: " + name.length + " bytes");
+            }
+            names.add(name);
+            size += Short.BYTES + name.length + 2;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Snapshot too large: " + size + " bytes");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) size);
+        out.putInt(MAGIC).putInt(VERSION).putLong(sequence).putInt(tasks.size());
+        int i = 0;
+        for (Map.Entry<Task, Status> entry : tasks.entrySet()) {
+            byte[] name = names.get(i++);
+            out.putShort((short) name.length).put(name)
+                    .put((byte) entry.getKey().priority().ordinal())
+                    .put((byte) entry.getValue().ordinal());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        out.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write checkpoint " + path, e);
+        }
+    }
+
+    /**
+     * Adds every task in the snapshot at {@code path} to {@code registry} and returns the
+     * journal sequence number the snapshot covers.
+     */
+    static long load(Path path, TaskRegistry registry) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.limit() < HEADER_BYTES + Integer.BYTES || in.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Not a task checkpoint: " + path);
+            }
+            int version = in.getInt(Integer.BYTES);
+            if (version != VERSION && version != VERSION_WITHOUT_STATUS) {
+                throw new IllegalStateException("Unsupported checkpoint version " + version);
+            }
+            int crcAt = in.limit() - Integer.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(in.duplicate().limit(crcAt));
+            if ((int) crc.getValue() != in.getInt(crcAt)) {
+                throw new IllegalStateException("Corrupt checkpoint: " + path);
+            }
+
+            in.position(Integer.BYTES * 2);
+            long sequence = in.getLong();
+            int count = in.getInt();
+            byte[] name = new byte[256];
+            for (int i = 0; i < count; i++) {
+                int length = Short.toUnsignedInt(in.getShort());
+                if (name.length < length) {
+                    name = new byte[Math.max(length, name.length * 2)];
+                }
+                in.get(name, 0, length);
+                Task task = new Task(new String(name, 0, length, StandardCharsets.UTF_8), PRIORITIES[in.get()]);
+                registry.restore(task, version == VERSION ? STATUSES[in.get()] : Status.TODO);
+            }
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read checkpoint " + path, e);
+        }
+    }
+}
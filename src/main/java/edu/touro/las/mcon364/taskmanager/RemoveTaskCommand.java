@@ -3,13 +3,30 @@ package edu.touro.las.mcon364.taskmanager;
 public final class RemoveTaskCommand implements Command {
     private final TaskRegistry registry;
     private final String name;
+    private final long requestId;
 
     public RemoveTaskCommand(TaskRegistry registry, String name) {
+        this(registry, name, NO_REQUEST_ID);
+    }
+
+    /**
+     * Creates the command as request {@code requestId}; see {@link Command#requestId}.
+     */
+    public RemoveTaskCommand(TaskRegistry registry, String name, long requestId) {
         this.registry = registry;
         this.name = name;
+        this.requestId = requestId;
     }
 
     public void execute() {
         registry.remove(name);
     }
+
+    public String taskName() {
+        return name;
+    }
+
+    public long requestId() {
+        return requestId;
+    }
 }
@@ -0,0 +1,261 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Warm standby for a {@link ReplicationPrimary}. A background thread applies the
+ * primary's command stream, in order, to the follower's own registry, which serves
+ * reads meanwhile. Nothing else should write to that registry, or it drifts from the
+ * primary.
+ * <p>
+ * The first connection starts with a full copy of the primary. After each batch of
+ * records the follower acknowledges the last sequence number it applied; after a
+ * disconnect it keeps reconnecting and resumes right after that number. A gap in the
+ * stream or a record that fails to apply means the copies have diverged, so the next
+ * connection asks for a full copy again.
+ */
+public final class ReplicationFollower implements AutoCloseable {
+    private static final long RETRY_MILLIS = 100;
+    private static final int BUFFER_BYTES = 128 * 1024;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final SocketAddress primary;
+    private final TaskRegistry registry;
+    private final Thread thread;
+    private final Object progress = new Object();
+    // -1 until the first full copy has been applied
+    private volatile long appliedSequence = -1;
+    private volatile boolean resync = true;
+    private volatile SocketChannel channel;
+    private volatile boolean closed;
+
+    private ReplicationFollower(SocketAddress primary, TaskRegistry registry) {
+        this.primary = primary;
+        this.registry = registry;
+        this.thread = new Thread(this::run, "replication-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Starts following the primary at {@code primary} into {@code registry}, which is
+     * replaced by the primary's contents once the first connection succeeds.
+     */
+    public static ReplicationFollower start(SocketAddress primary, TaskRegistry registry) {
+        return new ReplicationFollower(primary, registry);
+    }
+
+    public TaskRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * Returns the sequence number of the last command applied, or -1 before the first
+     * full copy has arrived.
+     */
+    public long appliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Waits until the command numbered {@code sequence} has been applied and returns
+     * whether it was before {@code timeout} ran out.
+     */
+    public boolean awaitSequence(long sequence, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (progress) {
+            while (appliedSequence < sequence) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                progress.wait(Math.max(1, remaining / 1_000_000));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Disconnects and stops the follower thread. The registry keeps what was applied.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        SocketChannel current = channel;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // Closing only unblocks the follower thread
+            }
+        }
+        thread.interrupt();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            try (SocketChannel socket = SocketChannel.open(primary)) {
+                channel = socket;
+                if (!closed) {
+                    follow(socket);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Primary unreachable or gone, or a garbled stream; retry below
+            } finally {
+                channel = null;
+            }
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void follow(SocketChannel socket) throws IOException {
+        ByteBuffer handshake = ByteBuffer.allocate(ReplicationPrimary.HANDSHAKE_BYTES);
+        handshake.putInt(ReplicationPrimary.MAGIC).putLong(resync ? -1 : appliedSequence).flip();
+        ReplicationPrimary.writeFully(socket, handshake);
+
+        ByteBuffer in = ByteBuffer.allocate(BUFFER_BYTES).flip();
+        in = fill(socket, in, ReplicationPrimary.START_BYTES);
+        if (in.getInt() != ReplicationPrimary.MAGIC) {
+            throw new IOException("Not a replication primary: " + primary);
+        }
+        byte mode = in.get();
+        long sequence = in.getLong();
+        if (mode == ReplicationPrimary.FULL_COPY) {
+            in = applyFullCopy(socket, in, sequence);
+        } else if (sequence != appliedSequence) {
+            resync = true;
+            throw new IOException("Primary resumed after " + sequence + ", not " + appliedSequence);
+        }
+
+        ByteBuffer ack = ByteBuffer.allocate(Long.BYTES);
+        long acknowledged = -1;
+        while (true) {
+            if (!hasRecord(in)) {
+                // About to block for more; confirm what was applied first
+                long applied = appliedSequence;
+                if (applied != acknowledged) {
+                    ack.clear();
+                    ack.putLong(applied).flip();
+                    ReplicationPrimary.writeFully(socket, ack);
+                    acknowledged = applied;
+                }
+                in = fill(socket, in, CommandCodec.HEADER_BYTES);
+                in = fill(socket, in, CommandCodec.HEADER_BYTES + in.getInt(in.position()));
+            }
+            int length = in.getInt(in.position());
+            int crc = in.getInt(in.position() + Integer.BYTES);
+            ByteBuffer body = in.slice(in.position() + CommandCodec.HEADER_BYTES, length);
+            in.position(in.position() + CommandCodec.HEADER_BYTES + length);
+            if (!CommandCodec.verify(body, crc)) {
+                throw new IOException("Corrupt replication record after " + appliedSequence);
+            }
+            apply(body);
+        }
+    }
+
+    private void apply(ByteBuffer body) throws IOException {
+        long sequence = CommandCodec.sequence(body);
+        long applied = appliedSequence;
+        if (sequence <= applied) {
+            // Older than the full copy or the resume point
+            return;
+        }
+        if (sequence != applied + 1) {
+            resync = true;
+            throw new IOException("Replication gap: expected " + (applied + 1) + ", got " + sequence);
+        }
+        try {
+            CommandCodec.decode(body, registry).execute();
+        } catch (RuntimeException e) {
+            resync = true;
+            throw new IOException("Replicated command " + sequence + " failed; resynchronizing", e);
+        }
+        advanceTo(sequence);
+    }
+
+    private ByteBuffer applyFullCopy(SocketChannel socket, ByteBuffer in, long sequence) throws IOException {
+        in = fill(socket, in, Integer.BYTES);
+        int count = in.getInt();
+        Task[] tasks = new Task[count];
+        Status[] statuses = new Status[count];
+        Set<String> names = new HashSet<>(Math.max(16, (int) (count / 0.75f) + 1));
+        for (int i = 0; i < count; i++) {
+            in = fill(socket, in, Short.BYTES);
+            int nameLength = Short.toUnsignedInt(in.getShort(in.position()));
+            in = fill(socket, in, Short.BYTES + nameLength + 2);
+            in.getShort();
+            byte[] name = new byte[nameLength];
+            in.get(name);
+            tasks[i] = new Task(new String(name, StandardCharsets.UTF_8), PRIORITIES[in.get()]);
+            statuses[i] = STATUSES[in.get()];
+            names.add(tasks[i].name());
+        }
+        // Drop only what the primary no longer has, so readers never miss a surviving task
+        for (String name : registry.getAll().keySet()) {
+            if (!names.contains(name)) {
+                registry.remove(name);
+            }
+        }
+        registry.putAll(tasks, statuses, count);
+        resync = false;
+        advanceTo(sequence);
+        return in;
+    }
+
+    private void advanceTo(long sequence) {
+        synchronized (progress) {
+            appliedSequence = sequence;
+            progress.notifyAll();
+        }
+    }
+
+    private static boolean hasRecord(ByteBuffer in) {
+        return in.remaining() >= CommandCodec.HEADER_BYTES
+                && in.remaining() >= CommandCodec.HEADER_BYTES + in.getInt(in.position());
+    }
+
+    /**
+     * Reads until {@code in} holds at least {@code bytes} unread bytes, growing it if
+     * they would not fit, and returns it ready for reading.
+     */
+    private static ByteBuffer fill(SocketChannel socket, ByteBuffer in, int bytes) throws IOException {
+        if (in.remaining() >= bytes) {
+            return in;
+        }
+        if (in.capacity() < bytes) {
+            in = ByteBuffer.allocate(Math.max(bytes, in.capacity() * 2)).put(in);
+        } else {
+            in.compact();
+        }
+        while (in.position() < bytes) {
+            if (socket.read(in) < 0) {
+                throw new IOException("Primary closed the connection");
+            }
+        }
+        return in.flip();
+    }
+}
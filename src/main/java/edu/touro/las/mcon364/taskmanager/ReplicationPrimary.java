@@ -0,0 +1,304 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ships the commands of a journaled registry to {@link ReplicationFollower}s over a
+ * socket channel, loopback TCP or a Unix domain socket. Each follower gets a sender
+ * thread that tails the {@link CommandJournal} and copies its records, already in
+ * {@link CommandCodec} form, straight to the socket, so {@link TaskManager#run} never
+ * waits on a follower. Only durable records are shipped, so a follower is never ahead
+ * of what the primary would recover after a crash.
+ * <p>
+ * A connecting follower names the last sequence number it applied, and the stream
+ * resumes right after it. If the journal no longer reaches back that far, or the
+ * follower has nothing yet, the primary first sends a full copy of the registry taken
+ * with every stripe held, then the records that follow it. The wire format is
+ * <pre>
+ * follower: [int magic][long appliedSequence], then [long acknowledgedSequence]*
+ * primary:  [int magic][byte RESUME][long sequence]
+ *        or [int magic][byte FULL_COPY][long sequence][int count]{[short nameLength][name UTF-8][byte priority][byte status]}*
+ *           then journal records
+ * </pre>
+ */
+public final class ReplicationPrimary implements AutoCloseable {
+    static final int MAGIC = 0x54534B52; // "TSKR"
+    static final byte RESUME = 0;
+    static final byte FULL_COPY = 1;
+    static final int HANDSHAKE_BYTES = Integer.BYTES + Long.BYTES;
+    static final int START_BYTES = Integer.BYTES + 1 + Long.BYTES;
+
+    // Room for the largest full-copy entry
+    private static final int BUFFER_BYTES = 128 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final TaskRegistry registry;
+    private final CommandJournal journal;
+    private final ServerSocketChannel server;
+    private final Thread acceptor;
+    private final Set<SocketChannel> followers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong acknowledged = new AtomicLong();
+    private final AtomicInteger fullCopies = new AtomicInteger();
+    private volatile boolean closed;
+
+    private ReplicationPrimary(TaskRegistry registry, CommandJournal journal, ServerSocketChannel server) {
+        this.registry = registry;
+        this.journal = journal;
+        this.server = server;
+        this.acceptor = new Thread(this::accept, "replication-primary");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Starts accepting followers on {@code address}. Every command that should reach
+     * the followers must be run through a {@link TaskManager} writing to {@code journal}.
+     */
+    public static ReplicationPrimary start(TaskRegistry registry, CommandJournal journal, SocketAddress address) {
+        try {
+            ServerSocketChannel server = address instanceof UnixDomainSocketAddress
+                    ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                    : ServerSocketChannel.open();
+            try {
+                server.bind(address);
+            } catch (IOException e) {
+                server.close();
+                throw e;
+            }
+            return new ReplicationPrimary(registry, journal, server);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen for followers on " + address, e);
+        }
+    }
+
+    /**
+     * Returns the address followers connect to, with the actual port if port 0 was asked for.
+     */
+    public SocketAddress localAddress() {
+        try {
+            return server.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int followerCount() {
+        return followers.size();
+    }
+
+    /**
+     * Returns the highest sequence number any follower has confirmed applying.
+     */
+    public long acknowledgedSequence() {
+        return acknowledged.get();
+    }
+
+    int fullCopiesSent() {
+        return fullCopies.get();
+    }
+
+    /**
+     * Drops every follower connection; the followers reconnect and resume.
+     */
+    void disconnectFollowers() {
+        followers.forEach(ReplicationPrimary::closeQuietly);
+    }
+
+    /**
+     * Stops accepting followers and disconnects the current ones.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        SocketAddress address = localAddress();
+        closeQuietly(server);
+        disconnectFollowers();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                acceptor.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (address instanceof UnixDomainSocketAddress unix) {
+            try {
+                Files.deleteIfExists(unix.getPath());
+            } catch (IOException e) {
+                // A stale socket file only stops a later bind to the same path
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            SocketChannel follower;
+            try {
+                follower = server.accept();
+            } catch (IOException e) {
+                // Closed by close(); any other failure also ends accepting
+                return;
+            }
+            followers.add(follower);
+            if (closed) {
+                closeQuietly(follower);
+                return;
+            }
+            Thread sender = new Thread(() -> serve(follower), "replication-sender");
+            sender.setDaemon(true);
+            sender.start();
+        }
+    }
+
+    // Never interrupted: an interrupt during a journal read would close the journal's channel
+    private void serve(SocketChannel follower) {
+        try (follower) {
+            ByteBuffer handshake = ByteBuffer.allocate(HANDSHAKE_BYTES);
+            readFully(follower, handshake);
+            if (handshake.getInt(0) != MAGIC) {
+                return;
+            }
+            long applied = handshake.getLong(Integer.BYTES);
+            ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            long cursor = applied < 0 ? -1 : journal.tailStart(applied);
+            if (cursor < 0) {
+                cursor = sendFullCopy(follower, out);
+            } else {
+                out.clear();
+                out.putInt(MAGIC).put(RESUME).putLong(applied).flip();
+                writeFully(follower, out);
+            }
+
+            Thread acks = new Thread(() -> readAcks(follower), "replication-acks");
+            acks.setDaemon(true);
+            acks.start();
+            while (!closed && follower.isOpen()) {
+                out.clear();
+                int read = journal.readTail(cursor, out);
+                if (read < 0) {
+                    // Truncation overtook this follower; it reconnects for a full copy
+                    return;
+                }
+                if (read == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                out.flip();
+                writeFully(follower, out);
+                cursor += read;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // The follower went away or the journal was closed; the follower reconnects
+        } finally {
+            followers.remove(follower);
+        }
+    }
+
+    /**
+     * Sends the registry's contents and returns the journal position the stream
+     * continues from. Journal appends happen under the stripe locks, so with every
+     * stripe held the copy and the journal's last sequence describe the same moment.
+     */
+    private long sendFullCopy(SocketChannel follower, ByteBuffer out) throws IOException {
+        while (true) {
+            Map<Task, Status> copy = new LinkedHashMap<>();
+            long sequence;
+            registry.lockAll();
+            try {
+                registry.forEachEntry(copy::put);
+                sequence = journal.lastSequence();
+            } finally {
+                registry.unlockAll();
+            }
+            // The copy must not get ahead of what the primary could recover
+            journal.awaitDurable(sequence);
+            long cursor = journal.tailStart(sequence);
+            if (cursor < 0) {
+                // Truncated past the copy while taking it; take another
+                continue;
+            }
+
+            fullCopies.incrementAndGet();
+            out.clear();
+            out.putInt(MAGIC).put(FULL_COPY).putLong(sequence).putInt(copy.size());
+            for (Map.Entry<Task, Status> entry : copy.entrySet()) {
+                byte[] name = entry.getKey().name().getBytes(StandardCharsets.UTF_8);
+                if (name.length > CommandCodec.MAX_NAME_BYTES) {
+                    throw new IllegalArgumentException("Task name too long to replicate: " + name.length + " bytes");
+                }
+                if (out.remaining() < Short.BYTES + name.length + 2) {
+                    out.flip();
+                    writeFully(follower, out);
+                    out.clear();
+                }
+                out.putShort((short) name.length).put(name)
+                        .put((byte) entry.getKey().priority().ordinal())
+                        .put((byte) entry.getValue().ordinal());
+            }
+            out.flip();
+            writeFully(follower, out);
+            return cursor;
+        }
+    }
+
+    private void readAcks(SocketChannel follower) {
+        ByteBuffer ack = ByteBuffer.allocate(Long.BYTES);
+        try {
+            while (true) {
+                ack.clear();
+                readFully(follower, ack);
+                acknowledged.accumulateAndGet(ack.getLong(0), Math::max);
+            }
+        } catch (IOException e) {
+            // Closing the socket also stops its sender
+            closeQuietly(follower);
+        }
+    }
+
+    static void readFully(SocketChannel channel, ByteBuffer target) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                throw new EOFException("Replication peer closed the connection");
+            }
+        }
+    }
+
+    static void writeFully(SocketChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable channel) {
+        try {
+            channel.close();
+        } catch (Exception e) {
+            // Already broken; nothing left to release
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The request IDs of the last {@code window} applied commands, for {@link TaskManager} to
+ * skip retried ones. A retry names the same task as its original, so it lands on the same
+ * registry lock stripe; the IDs are therefore kept in one segment per stripe, each
+ * guarded by that stripe's lock, and checking an ID takes no lock of its own.
+ * <p>
+ * The window is counted over all stripes, not split between them: every ID takes an
+ * arrival number from one shared counter and is forgotten once {@code window} more IDs
+ * have arrived anywhere, so a retry of a hot task is checked against the whole window.
+ * Each segment is a ring of IDs in arrival order, the oldest forgotten first, and a
+ * linear-probing table of ring positions at most half full for lookups, 24 to 48 bytes
+ * per remembered ID. A segment grows to hold as many IDs as its stripe has within
+ * the window and keeps that size. IDs that have left the window are dropped from a
+ * segment the next time its stripe records an ID, and never match before then.
+ */
+final class RequestWindow {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long window;
+    private final AtomicLong arrivals = new AtomicLong();
+    private final Segment[] segments;
+
+    /**
+     * One stripe's IDs. Guarded by the stripe's lock.
+     */
+    private static final class Segment {
+        long[] ids = new long[INITIAL_CAPACITY];
+        long[] arrived = new long[INITIAL_CAPACITY];
+        // Ring positions plus one, so 0 marks an empty slot
+        int[] table = new int[INITIAL_CAPACITY * 2];
+        int head;
+        int size;
+    }
+
+    RequestWindow(int window, int stripes) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.window = window;
+        segments = new Segment[stripes];
+        for (int i = 0; i < stripes; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Returns whether {@code requestId} is remembered. The caller holds {@code stripe}'s lock.
+     */
+    boolean contains(int stripe, long requestId) {
+        Segment segment = segments[stripe];
+        int position = find(segment, requestId);
+        return position >= 0 && segment.arrived[position] >= arrivals.get() - window;
+    }
+
+    /**
+     * Remembers {@code requestId}, forgetting the stripe's IDs that have left the window.
+     * The caller holds {@code stripe}'s lock and has checked the ID is not remembered yet.
+     */
+    void add(int stripe, long requestId) {
+        long arrival = arrivals.getAndIncrement();
+        Segment segment = segments[stripe];
+        // The ring is in arrival order, so whatever has left the window is at its head
+        while (segment.size > 0 && segment.arrived[segment.head] <= arrival - window) {
+            forgetOldest(segment);
+        }
+        if (segment.size == segment.ids.length) {
+            grow(segment);
+        }
+        int position = (segment.head + segment.size) % segment.ids.length;
+        segment.ids[position] = requestId;
+        segment.arrived[position] = arrival;
+        segment.size++;
+        insert(segment.table, segment.ids, position);
+    }
+
+    /**
+     * Returns the ring position holding {@code requestId}, or -1.
+     */
+    private static int find(Segment segment, long requestId) {
+        int[] table = segment.table;
+        int mask = table.length - 1;
+        for (int slot = hash(requestId) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            if (segment.ids[table[slot] - 1] == requestId) {
+                return table[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private static void insert(int[] table, long[] ids, int position) {
+        int mask = table.length - 1;
+        int slot = hash(ids[position]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = position + 1;
+    }
+
+    private static void forgetOldest(Segment segment) {
+        delete(segment, segment.head);
+        segment.head = (segment.head + 1) % segment.ids.length;
+        segment.size--;
+    }
+
+    /**
+     * Doubles the ring, laying its IDs out from position 0, and rebuilds the table.
+     */
+    private static void grow(Segment segment) {
+        int capacity = segment.ids.length;
+        long[] ids = new long[capacity * 2];
+        long[] arrived = new long[capacity * 2];
+        for (int i = 0; i < segment.size; i++) {
+            ids[i] = segment.ids[(segment.head + i) % capacity];
+            arrived[i] = segment.arrived[(segment.head + i) % capacity];
+        }
+        int[] table = new int[capacity * 4];
+        for (int i = 0; i < segment.size; i++) {
+            insert(table, ids, i);
+        }
+        segment.ids = ids;
+        segment.arrived = arrived;
+        segment.table = table;
+        segment.head = 0;
+    }
+
+    /**
+     * Backward-shift deletion, as in {@link NameDictionary}, so lookups need no tombstones.
+     */
+    private static void delete(Segment segment, int position) {
+        int[] table = segment.table;
+        int mask = table.length - 1;
+        int hole = hash(segment.ids[position]) & mask;
+        while (table[hole] != position + 1) {
+            hole = (hole + 1) & mask;
+        }
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (table[slot] == 0) {
+                break;
+            }
+            int home = hash(segment.ids[table[slot] - 1]) & mask;
+            // Move the entry back only if its home is not cyclically inside (hole, slot]
+            boolean between = hole <= slot ? hole < home && home <= slot : hole < home || home <= slot;
+            if (!between) {
+                table[hole] = table[slot];
+                hole = slot;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    // Request IDs are often sequential, so mix them before taking the low bits
+    private static int hash(long requestId) {
+        long h = requestId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,113 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Priority-ordered view of the registry's {@link Status#TODO} tasks, the ones a worker
+ * can still pick up: one FIFO bucket of names per {@link Priority}, each an
+ * insertion-ordered hash set so that appends, removals and moves are O(1). Asking for
+ * the next task looks at no more than one bucket per priority level. A task whose
+ * priority changes moves to the back of its new bucket; a re-add at the same priority
+ * keeps its place. A task leaves the queue when it leaves TODO and rejoins at the back
+ * if it returns.
+ */
+final class SchedulingQueue implements TaskIndex {
+    private static final Priority[] HIGHEST_FIRST = {Priority.HIGH, Priority.MEDIUM, Priority.LOW};
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Priority, LinkedHashSet<String>> buckets = new EnumMap<>(Priority.class);
+
+    SchedulingQueue() {
+        for (Priority priority : Priority.values()) {
+            buckets.put(priority, new LinkedHashSet<>());
+        }
+    }
+
+    @Override
+    public void onPut(Task previous, Task current) {
+        if (previous != null && previous.priority() == current.priority()) {
+            return;
+        }
+        lock.lock();
+        try {
+            // A task that is no longer TODO stays out of the queue
+            if (previous == null || buckets.get(previous.priority()).remove(previous.name())) {
+                buckets.get(current.priority()).add(current.name());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onRemove(Task previous) {
+        lock.lock();
+        try {
+            buckets.get(previous.priority()).remove(previous.name());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onStatusChange(Task task, Status previous, Status current) {
+        if (previous != Status.TODO && current != Status.TODO) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (current == Status.TODO) {
+                buckets.get(task.priority()).add(task.name());
+            } else {
+                buckets.get(task.priority()).remove(task.name());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the task at the head of the highest non-empty bucket, or {@code null}.
+     */
+    Task peek() {
+        lock.lock();
+        try {
+            for (Priority priority : HIGHEST_FIRST) {
+                Iterator<String> bucket = buckets.get(priority).iterator();
+                if (bucket.hasNext()) {
+                    return new Task(bucket.next(), priority);
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code k} tasks, highest priority first and oldest first within a priority.
+     */
+    List<Task> top(int k) {
+        List<Task> result = new ArrayList<>(Math.min(k, 64));
+        lock.lock();
+        try {
+            for (Priority priority : HIGHEST_FIRST) {
+                for (String name : buckets.get(priority)) {
+                    if (result.size() == k) {
+                        return result;
+                    }
+                    result.add(new Task(name, priority));
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Tasks partitioned by name hash across independent {@link TaskRegistry} shards, each
+ * with its own {@link TaskManager} and its own single writer thread. A shard's registry
+ * is only ever written from that thread, so its locks are never contended, and shards
+ * share no state, so write throughput grows with the number of shards up to the number
+ * of cores.
+ * <p>
+ * Commands must be built against {@link #registryFor(String)} for their task's name, so
+ * that they act on the shard that owns the task. Reads go straight to the owning shard.
+ * Bulk operations fan out to every shard in parallel; each shard's part is consistent,
+ * but the shards are not frozen at one common instant.
+ */
+public final class ShardedTaskRegistry implements AutoCloseable {
+
+    private record Shard(TaskRegistry registry, TaskManager manager, ExecutorService executor) {}
+
+    private final Shard[] shards;
+    private volatile boolean closed;
+
+    /**
+     * Creates {@code shardCount} shards on {@link ConcurrentTaskStore}s.
+     */
+    public ShardedTaskRegistry(int shardCount) {
+        this(shardCount, ConcurrentTaskStore::new);
+    }
+
+    /**
+     * Creates {@code shardCount} shards, each storing its tasks in a fresh store from
+     * {@code stores}.
+     */
+    public ShardedTaskRegistry(int shardCount, Supplier<? extends TaskStore> stores) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            TaskRegistry registry = new TaskRegistry(stores.get());
+            String threadName = "task-shard-" + i;
+            ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+            shards[i] = new Shard(registry, new TaskManager(registry), executor);
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the registry of the shard that owns {@code name}; build commands for that
+     * task against it.
+     */
+    public TaskRegistry registryFor(String name) {
+        return shards[shardOf(name)].registry();
+    }
+
+    /**
+     * Queues {@code command} on the writer thread of the shard owning its task. The
+     * returned future completes once the command has run, or exceptionally with the
+     * exception it threw.
+     */
+    public CompletableFuture<Void> submit(Command command) {
+        checkOpen();
+        Shard shard = shards[shardOf(command.taskName())];
+        return runOn(shard, () -> shard.manager().run(command));
+    }
+
+    /**
+     * Runs {@code command} on its shard and waits for it, rethrowing what it throws.
+     */
+    public void run(Command command) {
+        try {
+            submit(command).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Splits a batch by shard and has every shard apply its part with
+     * {@link TaskManager#runAll} at the same time. Results come back in input order;
+     * commands on the same task keep their relative order.
+     */
+    public CompletableFuture<List<CommandResult>> submitAll(Collection<? extends Command> commands) {
+        checkOpen();
+        List<? extends Command> batch = List.copyOf(commands);
+        List<List<Command>> parts = new ArrayList<>(shards.length);
+        List<List<Integer>> positions = new ArrayList<>(shards.length);
+        for (int s = 0; s < shards.length; s++) {
+            parts.add(new ArrayList<>());
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            int s = shardOf(batch.get(i).taskName());
+            parts.get(s).add(batch.get(i));
+            positions.get(s).add(i);
+        }
+
+        List<CompletableFuture<Void>> running = new ArrayList<>(shards.length);
+        CommandResult[] results = new CommandResult[batch.size()];
+        for (int s = 0; s < shards.length; s++) {
+            if (parts.get(s).isEmpty()) {
+                continue;
+            }
+            Shard shard = shards[s];
+            List<Command> part = parts.get(s);
+            List<Integer> at = positions.get(s);
+            running.add(runOn(shard, () -> {
+                List<CommandResult> partResults = shard.manager().runAll(part);
+                for (int k = 0; k < at.size(); k++) {
+                    results[at.get(k)] = partResults.get(k);
+                }
+            }));
+        }
+        // allOf happens-after every part, so the array writes are visible to the caller
+        return CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> List.of(results));
+    }
+
+    public Optional<Task> get(String name) {
+        return registryFor(name).get(name);
+    }
+
+    public Optional<Status> getStatus(String name) {
+        return registryFor(name).getStatus(name);
+    }
+
+    /**
+     * Copies every shard on its own writer thread, in parallel, and merges the copies
+     * into an unmodifiable map.
+     */
+    public Map<String, Task> getAll() {
+        checkOpen();
+        List<CompletableFuture<Map<String, Task>>> copies = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            copies.add(supplyOn(shard, shard.registry()::getAll));
+        }
+        int size = 0;
+        for (CompletableFuture<Map<String, Task>> copy : copies) {
+            size += copy.join().size();
+        }
+        Map<String, Task> all = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+        for (CompletableFuture<Map<String, Task>> copy : copies) {
+            all.putAll(copy.join());
+        }
+        return Collections.unmodifiableMap(all);
+    }
+
+    private static CompletableFuture<Void> runOn(Shard shard, Runnable task) {
+        return supplyOn(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Queues {@code task} on the shard's writer thread, reporting a lost race with
+     * {@link #close} as {@link #checkOpen} would.
+     */
+    private static <T> CompletableFuture<T> supplyOn(Shard shard, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, shard.executor());
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Sharded registry is closed", e);
+        }
+    }
+
+    /**
+     * Returns the number of tasks across all shards.
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.registry().store().size();
+        }
+        return size;
+    }
+
+    public int countByPriority(Priority priority) {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.registry().countByPriority(priority);
+        }
+        return count;
+    }
+
+    public int countByStatus(Status status) {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.registry().countByStatus(status);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the metrics of every shard's manager, in shard order.
+     */
+    public List<CommandMetrics> metrics() {
+        List<CommandMetrics> metrics = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            metrics.add(shard.manager().metrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Stops accepting work, lets every shard finish what it has queued and stops the
+     * writer threads.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Shard shard : shards) {
+            shard.executor().shutdown();
+        }
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            while (true) {
+                try {
+                    if (shard.executor().awaitTermination(1, TimeUnit.MINUTES)) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Picks the shard from the high bits of the spread hash; the registry's lock stripes
+    // use the low bits, so a shard still spreads its tasks over all of its stripes
+    int shardOf(String name) {
+        int h = name.hashCode();
+        h ^= h >>> 16;
+        return (int) (((h * 0x9E3779B9L) & 0xFFFFFFFFL) * shards.length >>> 32);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Sharded registry is closed");
+        }
+    }
+}
@@ -0,0 +1,599 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Streams tasks between a {@link TaskRegistry} and a file of records, one per line, in
+ * CSV or JSON lines.
+ * <p>
+ * Import reads the file in large chunks cut at record boundaries, parses the chunks in
+ * parallel on the common pool, and inserts them in file order through the registry's
+ * bulk path, so a later record for a name wins. At most a few chunks per core are in
+ * memory at once. Export copies one lock stripe's tasks at a time and encodes and writes
+ * them after releasing that stripe, never holding more than one stripe's tasks and one
+ * buffer of output.
+ * <p>
+ * CSV files start with the header {@code name,priority} or {@code name,priority,status}
+ * and quote fields as RFC 4180 does. JSON lines hold one flat object per line with the
+ * string members {@code name}, {@code priority} and optionally {@code status}; other
+ * members are ignored. A record without a status leaves a replaced task's status alone
+ * and starts a new task as {@link Status#TODO}. Imports go straight to the registry,
+ * not through a {@link TaskManager}, so they are neither journaled nor undoable.
+ */
+public final class TaskBulkIO {
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final int FLUSH_CHARS = 1 << 18;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    public enum Format { CSV, JSON_LINES }
+
+    // One parsed chunk; statuses is null when the file has no status column
+    private record Chunk(Task[] tasks, Status[] statuses, int count, int bytes) {}
+
+    private TaskBulkIO() {}
+
+    /**
+     * Imports every record in {@code file} into {@code registry} and returns how many
+     * were read. A malformed record stops the import with an
+     * {@link IllegalArgumentException}; chunks before the one holding it stay imported.
+     */
+    public static long importTasks(TaskRegistry registry, Path file, Format format) {
+        return importTasks(registry, file, format, CHUNK_BYTES);
+    }
+
+    static long importTasks(TaskRegistry registry, Path file, Format format, int chunkBytes) {
+        int maxInFlight = Runtime.getRuntime().availableProcessors() + 1;
+        Deque<CompletableFuture<Chunk>> inFlight = new ArrayDeque<>();
+        long imported = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            boolean presized = false;
+            boolean hasStatus = true;
+            boolean header = format == Format.CSV;
+            long offset = 0;
+            byte[] data = new byte[chunkBytes];
+            int length = 0;
+            boolean eof = false;
+            while (!eof) {
+                ByteBuffer view = ByteBuffer.wrap(data, length, data.length - length);
+                while (view.hasRemaining()) {
+                    if (channel.read(view) < 0) {
+                        eof = true;
+                        break;
+                    }
+                }
+                length = view.position();
+                int end = eof ? length : lastBoundary(format, data, length);
+                if (end < 0) {
+                    // A single record longer than the buffer
+                    data = Arrays.copyOf(data, data.length * 2);
+                    continue;
+                }
+                int start = 0;
+                if (header) {
+                    if (length == 0) {
+                        return 0;
+                    }
+                    int lineEnd = indexOf(data, (byte) '\n', 0, end);
+                    start = lineEnd < 0 ? end : lineEnd + 1;
+                    hasStatus = readHeader(new String(data, 0, lineEnd < 0 ? end : lineEnd, StandardCharsets.UTF_8));
+                    header = false;
+                }
+                if (start < end) {
+                    byte[] bytes = data;
+                    int from = start;
+                    int to = end;
+                    long at = offset;
+                    boolean statusColumn = hasStatus;
+                    inFlight.add(CompletableFuture.supplyAsync(() -> format == Format.CSV
+                            ? parseCsv(bytes, from, to, at, statusColumn)
+                            : parseJsonLines(bytes, from, to, at)));
+                }
+                byte[] next = new byte[Math.max(chunkBytes, 2 * (length - end))];
+                System.arraycopy(data, end, next, 0, length - end);
+                offset += end;
+                length -= end;
+                data = next;
+
+                while (inFlight.size() >= maxInFlight || (eof && !inFlight.isEmpty())) {
+                    Chunk chunk = join(inFlight.poll());
+                    if (!presized && chunk.bytes() > 0) {
+                        // Extrapolate the record count from the first chunk's density
+                        long expected = (long) chunk.count() * fileSize / chunk.bytes();
+                        registry.ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8,
+                                registry.store().size() + expected));
+                        presized = true;
+                    }
+                    registry.putAll(chunk.tasks(), chunk.statuses(), chunk.count());
+                    imported += chunk.count();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot import tasks from " + file, e);
+        } finally {
+            inFlight.forEach(pending -> pending.cancel(false));
+        }
+        return imported;
+    }
+
+    /**
+     * Writes every task in {@code registry} with its status to {@code file}, replacing
+     * it, and returns how many were written. The tasks are copied one lock stripe at a
+     * time, each stripe held only while its own tasks are copied and released before they
+     * are written, so writers elsewhere keep going and the copy never holds more than one
+     * stripe. Each stripe's tasks are as of one moment, but different stripes may be
+     * copied before and after a write. On a {@link VersionedTaskStore} the file is written
+     * from a snapshot, one moment for the whole registry, without stopping writers.
+     */
+    public static long exportTasks(TaskRegistry registry, Path file, Format format) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = new Writer(channel, format);
+            if (registry.store() instanceof VersionedTaskStore) {
+                registry.snapshot().forEachEntry(writer::write);
+            } else {
+                writeByStripe(registry, writer);
+            }
+            writer.flush();
+            return writer.count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot export tasks to " + file, e);
+        } catch (UncheckedIOException e) {
+            throw new UncheckedIOException("Cannot export tasks to " + file, e.getCause());
+        }
+    }
+
+    /**
+     * Copies each stripe's names and packed states out of the registry's status and
+     * priority index under that stripe's lock, then writes them. The index is read once
+     * per stripe, which costs more CPU than one pass but needs no store lookups and only
+     * a buffer the size of the largest stripe.
+     */
+    private static void writeByStripe(TaskRegistry registry, Writer writer) {
+        String[] names = new String[256];
+        byte[] states = new byte[names.length];
+        for (int stripe = 0; stripe < registry.stripeCount(); stripe++) {
+            int count = 0;
+            Lock lock = registry.stripeLock(stripe);
+            lock.lock();
+            try {
+                for (Status status : STATUSES) {
+                    for (Priority priority : PRIORITIES) {
+                        for (String name : registry.cell(status, priority)) {
+                            if (registry.stripe(name) != stripe) {
+                                continue;
+                            }
+                            if (count == names.length) {
+                                names = Arrays.copyOf(names, count * 2);
+                                states = Arrays.copyOf(states, count * 2);
+                            }
+                            names[count] = name;
+                            states[count++] = (byte) (status.ordinal() << 2 | priority.ordinal());
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (int i = 0; i < count; i++) {
+                writer.write(names[i], PRIORITIES[states[i] & 3], STATUSES[states[i] >> 2]);
+            }
+        }
+    }
+
+    /**
+     * Encodes records into a character buffer and hands it to the channel as UTF-8
+     * whenever it fills up.
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final Format format;
+        private final StringBuilder out = new StringBuilder(FLUSH_CHARS + 256);
+        private long count;
+
+        Writer(FileChannel channel, Format format) {
+            this.channel = channel;
+            this.format = format;
+            if (format == Format.CSV) {
+                out.append("name,priority,status\n");
+            }
+        }
+
+        void write(Task task, Status status) {
+            write(task.name(), task.priority(), status);
+        }
+
+        void write(String name, Priority priority, Status status) {
+            if (format == Format.CSV) {
+                appendCsvField(out, name);
+                out.append(',').append(priority.name()).append(',').append(status.name()).append('\n');
+            } else {
+                out.append("{\"name\":");
+                appendJsonString(out, name);
+                out.append(",\"priority\":\"").append(priority.name())
+                        .append("\",\"status\":\"").append(status.name()).append("\"}\n");
+            }
+            count++;
+            if (out.length() >= FLUSH_CHARS) {
+                flush();
+            }
+        }
+
+        void flush() {
+            ByteBuffer bytes = ByteBuffer.wrap(out.toString().getBytes(StandardCharsets.UTF_8));
+            out.setLength(0);
+            try {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void appendCsvField(StringBuilder out, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Returns the index just past the last complete record in {@code data[0, length)},
+     * or -1 if there is none. Raw newlines inside JSON strings are illegal, so every one
+     * ends a line; in CSV only newlines outside quotes do, which takes a forward scan.
+     */
+    private static int lastBoundary(Format format, byte[] data, int length) {
+        if (format == Format.JSON_LINES) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (data[i] == '\n') {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+        // Chunks start on a record boundary, so quoting starts closed; "" toggles twice
+        boolean quoted = false;
+        int boundary = -1;
+        for (int i = 0; i < length; i++) {
+            byte b = data[i];
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                boundary = i + 1;
+            }
+        }
+        return boundary;
+    }
+
+    private static int indexOf(byte[] data, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Returns whether the CSV header has a status column
+    private static boolean readHeader(String line) {
+        // A byte order mark decodes to U+FEFF, which strip() keeps
+        String header = (line.startsWith("\uFEFF") ? line.substring(1) : line).strip().toLowerCase(Locale.ROOT);
+        header = header.replace(" ", "");
+        return switch (header) {
+            case "name,priority,status" -> true;
+            case "name,priority" -> false;
+            default -> throw new IllegalArgumentException(
+                    "CSV header must be name,priority[,status], not: " + line);
+        };
+    }
+
+    static Chunk parseCsv(byte[] data, int from, int to, long offset, boolean hasStatus) {
+        String text = new String(data, from, to - from, StandardCharsets.UTF_8);
+        int columns = hasStatus ? 3 : 2;
+        Task[] tasks = new Task[Math.max(16, (to - from) / 24)];
+        Status[] statuses = hasStatus ? new Status[tasks.length] : null;
+        String[] fields = new String[columns];
+        StringBuilder quoted = new StringBuilder();
+        int count = 0;
+        int pos = 0;
+        int end = text.length();
+        while (pos < end) {
+            char c = text.charAt(pos);
+            if (c == '\n' || c == '\r') {
+                pos++;
+                continue;
+            }
+            int field = 0;
+            while (true) {
+                String value;
+                if (pos < end && text.charAt(pos) == '"') {
+                    quoted.setLength(0);
+                    pos++;
+                    while (true) {
+                        if (pos >= end) {
+                            throw malformed("CSV", offset, "unterminated quoted field");
+                        }
+                        char q = text.charAt(pos++);
+                        if (q == '"') {
+                            if (pos < end && text.charAt(pos) == '"') {
+                                quoted.append('"');
+                                pos++;
+                            } else {
+                                break;
+                            }
+                        } else {
+                            quoted.append(q);
+                        }
+                    }
+                    value = quoted.toString();
+                } else {
+                    int start = pos;
+                    while (pos < end && text.charAt(pos) != ',' && text.charAt(pos) != '\n' && text.charAt(pos) != '\r') {
+                        if (text.charAt(pos) == '"') {
+                            throw malformed("CSV", offset, "quote inside an unquoted field");
+                        }
+                        pos++;
+                    }
+                    value = text.substring(start, pos);
+                }
+                if (field == columns) {
+                    throw malformed("CSV", offset, "more than " + columns + " fields");
+                }
+                fields[field++] = value;
+                if (pos < end && text.charAt(pos) == ',') {
+                    pos++;
+                    continue;
+                }
+                if (pos < end && text.charAt(pos) == '\r') {
+                    pos++;
+                }
+                if (pos < end && text.charAt(pos) != '\n') {
+                    throw malformed("CSV", offset, "unexpected character after quoted field");
+                }
+                pos++;
+                break;
+            }
+            if (field != columns) {
+                throw malformed("CSV", offset, "expected " + columns + " fields, found " + field);
+            }
+            if (count == tasks.length) {
+                tasks = Arrays.copyOf(tasks, count * 2);
+                if (statuses != null) {
+                    statuses = Arrays.copyOf(statuses, count * 2);
+                }
+            }
+            tasks[count] = new Task(fields[0], parse(PRIORITIES, fields[1], "CSV", offset));
+            if (statuses != null) {
+                statuses[count] = parse(STATUSES, fields[2], "CSV", offset);
+            }
+            count++;
+        }
+        return new Chunk(tasks, statuses, count, to - from);
+    }
+
+    static Chunk parseJsonLines(byte[] data, int from, int to, long offset) {
+        String text = new String(data, from, to - from, StandardCharsets.UTF_8);
+        Task[] tasks = new Task[Math.max(16, (to - from) / 48)];
+        Status[] statuses = new Status[tasks.length];
+        JsonLine line = new JsonLine(text, offset);
+        int count = 0;
+        while (line.next()) {
+            if (line.name == null || line.priority == null) {
+                throw malformed("JSON", offset, "record needs a name and a priority");
+            }
+            if (count == tasks.length) {
+                tasks = Arrays.copyOf(tasks, count * 2);
+                statuses = Arrays.copyOf(statuses, count * 2);
+            }
+            tasks[count] = new Task(line.name, parse(PRIORITIES, line.priority, "JSON", offset));
+            statuses[count] = line.status == null ? null : parse(STATUSES, line.status, "JSON", offset);
+            count++;
+        }
+        return new Chunk(tasks, statuses, count, to - from);
+    }
+
+    /**
+     * Reads flat JSON objects of string members, one per line, from a decoded chunk.
+     */
+    private static final class JsonLine {
+        private final String text;
+        private final long offset;
+        private final StringBuilder scratch = new StringBuilder();
+        private int pos;
+        String name;
+        String priority;
+        String status;
+
+        JsonLine(String text, long offset) {
+            this.text = text;
+            this.offset = offset;
+        }
+
+        // Moves to the next non-blank line and reads it; false at the end of the chunk
+        boolean next() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                return false;
+            }
+            name = priority = status = null;
+            expect('{');
+            skipSpaces();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    skipSpaces();
+                    String key = string();
+                    skipSpaces();
+                    expect(':');
+                    skipSpaces();
+                    String value = string();
+                    switch (key) {
+                        case "name" -> name = value;
+                        case "priority" -> priority = value;
+                        case "status" -> status = value;
+                        default -> { }
+                    }
+                    skipSpaces();
+                    if (peek() == ',') {
+                        pos++;
+                        continue;
+                    }
+                    expect('}');
+                    break;
+                }
+            }
+            skipSpaces();
+            if (pos < text.length() && text.charAt(pos) != '\n') {
+                throw malformed("JSON", offset, "trailing characters after object");
+            }
+            return true;
+        }
+
+        private String string() {
+            expect('"');
+            scratch.setLength(0);
+            while (true) {
+                if (pos >= text.length()) {
+                    throw malformed("JSON", offset, "unterminated string");
+                }
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return scratch.toString();
+                }
+                if (c == '\n') {
+                    throw malformed("JSON", offset, "unterminated string");
+                }
+                if (c != '\\') {
+                    scratch.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    throw malformed("JSON", offset, "unterminated escape");
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case '"', '\\', '/' -> scratch.append(escaped);
+                    case 'b' -> scratch.append('\b');
+                    case 'f' -> scratch.append('\f');
+                    case 'n' -> scratch.append('\n');
+                    case 'r' -> scratch.append('\r');
+                    case 't' -> scratch.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw malformed("JSON", offset, "short \\u escape");
+                        }
+                        try {
+                            scratch.append((char) Integer.parseInt(text, pos, pos + 4, 16));
+                        } catch (NumberFormatException e) {
+                            throw malformed("JSON", offset, "bad \\u escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw malformed("JSON", offset, "bad escape \\" + escaped);
+                }
+            }
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\n';
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw malformed("JSON", offset, "expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && (text.charAt(pos) == ' ' || text.charAt(pos) == '\t' || text.charAt(pos) == '\r')) {
+                pos++;
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+
+    private static <E extends Enum<E>> E parse(E[] values, String text, String format, long offset) {
+        String key = text.strip();
+        for (E value : values) {
+            if (value.name().equalsIgnoreCase(key)) {
+                return value;
+            }
+        }
+        throw malformed(format, offset, "unknown " + values[0].getDeclaringClass().getSimpleName()
+                .toLowerCase(Locale.ROOT) + " '" + text + "'");
+    }
+
+    private static IllegalArgumentException malformed(String format, long offset, String reason) {
+        return new IllegalArgumentException("Malformed " + format + " in the chunk at byte " + offset + ": " + reason);
+    }
+
+    private static Chunk join(CompletableFuture<Chunk> parsing) {
+        try {
+            return parsing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-to-live for the tasks of a {@link TaskRegistry}. Deadlines live in a
+ * {@link TimingWheel}, so arming, extending and cancelling a TTL are O(1) however many
+ * are pending, and there is one background thread rather than a timer per task. Each
+ * tick collects the tasks that fell due and removes them in one batch, locking each of
+ * the registry's stripes once. A task removed by other means loses its TTL; replacing
+ * or updating a task keeps it.
+ * <p>
+ * Expired tasks are removed from the registry directly, so indexes and change feeds see
+ * the removal but a {@link CommandJournal} does not.
+ */
+public final class TaskExpirer implements AutoCloseable {
+    private final TaskRegistry registry;
+    private final long tickNanos;
+    private final LongSupplier clock;
+    private final long origin;
+    private final Lock lock = new ReentrantLock();
+    // Guarded by lock
+    private final TimingWheel wheel;
+    private final TaskIndex index = new TaskIndex() {
+        @Override
+        public void onPut(Task previous, Task current) {
+        }
+
+        @Override
+        public void onRemove(Task previous) {
+            lock.lock();
+            try {
+                wheel.cancel(previous.name());
+            } finally {
+                lock.unlock();
+            }
+        }
+    };
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates an expirer for {@code registry} whose deadlines are rounded up to whole
+     * {@code tick}s. Call {@link #start} to expire tasks in the background, or
+     * {@link #expireDue} to do it on demand.
+     */
+    public TaskExpirer(TaskRegistry registry, Duration tick) {
+        this(registry, tick, System::nanoTime);
+    }
+
+    TaskExpirer(TaskRegistry registry, Duration tick, LongSupplier clock) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive: " + tick);
+        }
+        this.registry = registry;
+        this.tickNanos = tick.toNanos();
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.wheel = new TimingWheel(0);
+        registry.attach(index);
+    }
+
+    /**
+     * Makes the named task expire {@code ttl} from now, replacing any TTL it had, and
+     * returns whether there is such a task.
+     */
+    public boolean expireAfter(String name, Duration ttl) {
+        // Under the task's lock so it cannot be removed between the check and the arming
+        Lock taskLock = registry.lockFor(name);
+        taskLock.lock();
+        try {
+            if (registry.get(name).isEmpty()) {
+                return false;
+            }
+            long deadline = ticksSinceOrigin(clock.getAsLong() - origin + ttl.toNanos() + tickNanos - 1);
+            lock.lock();
+            try {
+                wheel.schedule(name, deadline);
+            } finally {
+                lock.unlock();
+            }
+            return true;
+        } finally {
+            taskLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the named task's TTL so it stays until removed, and returns whether it had one.
+     */
+    public boolean persist(String name) {
+        lock.lock();
+        try {
+            return wheel.cancel(name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how long the named task has left, or an empty result if it has no TTL.
+     */
+    public Optional<Duration> timeToLive(String name) {
+        long deadline;
+        lock.lock();
+        try {
+            deadline = wheel.deadline(name);
+        } finally {
+            lock.unlock();
+        }
+        if (deadline < 0) {
+            return Optional.empty();
+        }
+        long remaining = deadline * tickNanos - (clock.getAsLong() - origin);
+        return Optional.of(Duration.ofNanos(Math.max(0, remaining)));
+    }
+
+    /**
+     * Returns the number of tasks with a TTL.
+     */
+    public int pending() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every task whose TTL has run out and returns how many were removed.
+     */
+    public int expireDue() {
+        List<TimingWheel.Timer> due = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advance(ticksSinceOrigin(clock.getAsLong() - origin), due);
+        } finally {
+            lock.unlock();
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        // Counting sort by stripe, so each stripe is locked once for the whole batch
+        int stripes = registry.stripeCount();
+        int[] start = new int[stripes + 1];
+        int[] stripeOf = new int[due.size()];
+        for (int i = 0; i < due.size(); i++) {
+            stripeOf[i] = registry.stripe(due.get(i).name);
+            start[stripeOf[i] + 1]++;
+        }
+        for (int s = 0; s < stripes; s++) {
+            start[s + 1] += start[s];
+        }
+        TimingWheel.Timer[] ordered = new TimingWheel.Timer[due.size()];
+        int[] next = start.clone();
+        for (int i = 0; i < due.size(); i++) {
+            ordered[next[stripeOf[i]]++] = due.get(i);
+        }
+
+        int removed = 0;
+        for (int s = 0; s < stripes; s++) {
+            if (start[s] == start[s + 1]) {
+                continue;
+            }
+            Lock taskLock = registry.lockFor(ordered[start[s]].name);
+            taskLock.lock();
+            try {
+                for (int k = start[s]; k < start[s + 1]; k++) {
+                    boolean expired;
+                    lock.lock();
+                    try {
+                        // Re-armed or removed since it fell due: leave the task alone
+                        expired = wheel.expire(ordered[k]);
+                    } finally {
+                        lock.unlock();
+                    }
+                    if (expired) {
+                        registry.remove(ordered[k].name);
+                        removed++;
+                    }
+                }
+            } finally {
+                taskLock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Expires due tasks once per tick on a background thread until closed.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-expirer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::expireDue, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the background thread and detaches from the registry; pending TTLs are dropped.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        registry.detach(index);
+    }
+
+    private long ticksSinceOrigin(long nanos) {
+        return Math.floorDiv(nanos, tickNanos);
+    }
+}
@@ -0,0 +1,26 @@
+package edu.touro.las.mcon364.taskmanager;
+
+/**
+ * Secondary structure kept in step with a {@link TaskRegistry}. Callbacks run while the
+ * registry holds the stripe lock of the task's name, so calls for one name arrive in
+ * order, but calls for different names may arrive concurrently.
+ */
+interface TaskIndex {
+
+    /**
+     * Called after {@code current} was stored; {@code previous} is the task it replaced,
+     * or {@code null} if the name is new.
+     */
+    void onPut(Task previous, Task current);
+
+    /**
+     * Called after {@code previous} was removed.
+     */
+    void onRemove(Task previous);
+
+    /**
+     * Called after {@code task} moved from {@code previous} to {@code current} status.
+     */
+    default void onStatusChange(Task task, Status previous, Status current) {
+    }
+}
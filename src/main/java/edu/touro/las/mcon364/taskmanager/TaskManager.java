@@ -1,20 +1,429 @@
 package edu.touro.las.mcon364.taskmanager;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+
 public class TaskManager {
+    private static final Status[] STATUSES = Status.values();
 
     private final TaskRegistry registry;
+    private final CommandJournal journal;
+    private final CommandMetrics metrics = new CommandMetrics();
+    private volatile CommandHistory history;
+    private volatile RequestWindow requests;
 
     public TaskManager(TaskRegistry registry) {
+        this(registry, null);
+    }
+
+    /**
+     * Creates a manager that records every successfully executed command in
+     * {@code journal} and returns from {@link #run} only once the record is durable.
+     */
+    public TaskManager(TaskRegistry registry, CommandJournal journal) {
         this.registry = registry;
+        this.journal = journal;
     }
 
     // TODO: Students must refactor this using pattern-matching switch
     // Current implementation uses old-style instanceof checks
     public void run(Command command) {
-        switch (command) {
-        case AddTaskCommand add -> add.execute();
-        case RemoveTaskCommand remove -> remove.execute();
-        case UpdateTaskCommand update -> update.execute();
+        CommandHistory history = this.history;
+        RequestWindow requests = command.requestId() == Command.NO_REQUEST_ID ? null : this.requests;
+        if (journal == null && history == null && requests == null) {
+            execute(command);
+            return;
+        }
+        // Journal under the task's lock so records for one task are in execution order,
+        // but wait for the sync outside it so other writers can join the same group commit
+        long sequence;
+        Lock lock = registry.lockFor(command.taskName());
+        lock.lock();
+        try {
+            sequence = runLocked(command, history, requests);
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Claims the task {@link TaskRegistry#peekNext} names by moving it to
+     * {@link Status#IN_PROGRESS} with a {@link ChangeStatusCommand}, run like any other,
+     * and returns it; the task stays in the registry. Concurrent callers never claim the
+     * same task. Returns an empty result if no task is waiting.
+     */
+    public Optional<Task> pollNext() {
+        while (true) {
+            Optional<Task> next = registry.peekNext();
+            if (next.isEmpty()) {
+                return next;
+            }
+            String name = next.get().name();
+            Task claimed;
+            long sequence;
+            Lock lock = registry.lockFor(name);
+            lock.lock();
+            try {
+                // Another worker may have claimed it first; then look again
+                if (registry.store().peekState(name) >> 2 != Status.TODO.ordinal()) {
+                    continue;
+                }
+                sequence = runLocked(new ChangeStatusCommand(registry, name, Status.IN_PROGRESS), history, null);
+                claimed = registry.store().get(name);
+            } finally {
+                lock.unlock();
+            }
+            awaitDurable(sequence);
+            return Optional.of(claimed);
+        }
+    }
+
+    /**
+     * Runs {@code command} unless it is a duplicate and returns its journal sequence
+     * number, or 0 without a journal. The caller holds the task's stripe lock and waits
+     * for the sequence to be durable after releasing it.
+     */
+    private long runLocked(Command command, CommandHistory history, RequestWindow requests) {
+        if (isDuplicate(command, requests)) {
+            // The original has been journaled; return once it is durable, as it would
+            return journal == null ? 0 : journal.lastSequence();
+        }
+        execute(command, history);
+        long sequence = journal == null ? 0 : journal.append(command);
+        remember(command, requests);
+        return sequence;
+    }
+
+    /**
+     * Runs a batch of commands and reports the outcome of each, in input order.
+     * Commands are grouped by registry lock stripe and each stripe is locked once for
+     * its whole group instead of once per command. Commands on the same task keep
+     * their relative order; commands on different tasks may be applied in any order.
+     * A failing command does not stop the rest of the batch. With a journal, the whole
+     * batch shares a single sync at the end. A command whose request ID was already
+     * applied is skipped and reported as succeeded.
+     */
+    public List<CommandResult> runAll(Collection<? extends Command> commands) {
+        return runAll(commands, history);
+    }
+
+    private List<CommandResult> runAll(Collection<? extends Command> commands, CommandHistory history) {
+        RequestWindow requests = this.requests;
+        Command[] batch = commands.toArray(new Command[0]);
+        CommandResult[] results = new CommandResult[batch.length];
+
+        // Counting sort of the batch positions by stripe, stable within each stripe
+        int stripes = registry.stripeCount();
+        int[] stripeOf = new int[batch.length];
+        int[] start = new int[stripes + 1];
+        for (int i = 0; i < batch.length; i++) {
+            stripeOf[i] = registry.stripe(batch[i].taskName());
+            start[stripeOf[i] + 1]++;
+        }
+        for (int s = 0; s < stripes; s++) {
+            start[s + 1] += start[s];
+        }
+        int[] order = new int[batch.length];
+        int[] next = Arrays.copyOf(start, stripes);
+        for (int i = 0; i < batch.length; i++) {
+            order[next[stripeOf[i]]++] = i;
+        }
+
+        long lastSequence = 0;
+        for (int s = 0; s < stripes; s++) {
+            if (start[s] == start[s + 1]) {
+                continue;
+            }
+            Lock lock = registry.lockFor(batch[order[start[s]]].taskName());
+            lock.lock();
+            try {
+                for (int k = start[s]; k < start[s + 1]; k++) {
+                    int i = order[k];
+                    if (isDuplicate(batch[i], requests)) {
+                        results[i] = CommandResult.success(batch[i]);
+                        if (journal != null) {
+                            lastSequence = journal.lastSequence();
+                        }
+                        continue;
+                    }
+                    results[i] = apply(batch[i], history);
+                    if (results[i].succeeded()) {
+                        if (journal != null) {
+                            lastSequence = journal.append(batch[i]);
+                        }
+                        remember(batch[i], requests);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (lastSequence > 0) {
+            journal.awaitDurable(lastSequence);
+        }
+        return List.of(results);
     }
+
+    /**
+     * Like {@link #runAll}, but first collapses redundant commands for the same task, so
+     * a burst of updates to one task is applied, journaled and synced once. The final
+     * registry state is the same as running every command. One result is returned per
+     * input command; a command merged into a later one shares that command's result.
+     */
+    public List<CommandResult> runCoalesced(Collection<? extends Command> commands) {
+        List<Command> batch = List.copyOf(commands);
+        CommandCoalescer.Batch coalesced = CommandCoalescer.coalesce(batch, registry);
+        metrics.recordCoalesced(batch.size() - coalesced.commands().size());
+        List<CommandResult> applied = runAll(coalesced.commands());
+
+        CommandResult[] results = new CommandResult[batch.size()];
+        for (int i = 0; i < results.length; i++) {
+            CommandResult carrier = applied.get(coalesced.carrierOf()[i]);
+            results[i] = carrier.command() == batch.get(i) ? carrier : new CommandResult(batch.get(i), carrier.failure());
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Starts an asynchronous, single-writer front end for this manager. Close the
+     * returned dispatcher to stop its writer thread.
+     */
+    public AsyncCommandDispatcher startAsync(int queueCapacity) {
+        return startAsync(queueCapacity, false);
+    }
+
+    /**
+     * Starts an asynchronous front end that, if {@code coalesce} is set, applies each
+     * drained chunk with {@link #runCoalesced} instead of {@link #runAll}.
+     */
+    public AsyncCommandDispatcher startAsync(int queueCapacity, boolean coalesce) {
+        return new AsyncCommandDispatcher(this, queueCapacity, coalesce);
+    }
+
+    /**
+     * Returns a new, empty {@link CommandRing} for a thread that submits commands to
+     * this manager at a high rate without allocating them.
+     */
+    public CommandRing commandRing(int capacity) {
+        return new CommandRing(this, registry, capacity);
+    }
+
+    /**
+     * Starts recording the last {@code depth} changes made through this manager so they
+     * can be undone and redone. Recording costs one {@link TaskStore#peekState} lookup per
+     * command, which allocates nothing on the built-in stores except the off-heap one,
+     * and a few array writes into a slot claimed with one atomic increment, so commands
+     * on different stripes still run in parallel. Undo and redo briefly hold every stripe
+     * lock. Calling this again starts a new, empty history.
+     */
+    public void enableHistory(int depth) {
+        history = new CommandHistory(depth);
+    }
+
+    /**
+     * Starts skipping commands whose {@link Command#requestId} is among the last
+     * {@code window} request IDs applied, so a producer's retry of a command that did go
+     * through has no effect. The check is a hash probe under the task's lock, which the
+     * command takes anyway; the window counts IDs across the whole registry, so a hot
+     * task's retries are checked against all of it. Commands without a request ID are
+     * never skipped. Calling this again starts a new window.
+     * <p>
+     * Request IDs are journaled with their commands. With a journal, the window starts
+     * out holding the last {@code window} IDs the journal still has, so a retry that
+     * arrives after a restart is skipped too; call this before running commands. IDs in
+     * records a checkpoint has already truncated are not restored.
+     */
+    public void enableDeduplication(int window) {
+        RequestWindow restored = new RequestWindow(window, registry.stripeCount());
+        if (journal != null) {
+            journal.forEachRequest((name, requestId) -> {
+                int stripe = registry.stripe(name);
+                if (!restored.contains(stripe, requestId)) {
+                    restored.add(stripe, requestId);
+                }
+            });
+        }
+        requests = restored;
+    }
+
+    /**
+     * Puts the task changed by the most recent recorded command back the way it was
+     * before, and returns {@code false} if there is nothing left to undo. The reverting
+     * commands are journaled like any others but are not themselves recorded.
+     *
+     * @throws IllegalStateException if history was never enabled
+     */
+    public boolean undo() {
+        CommandHistory history = requireHistory();
+        CommandHistory.Step step;
+        registry.lockAll();
+        try {
+            step = history.undo();
+        } finally {
+            registry.unlockAll();
+        }
+        return restore(step);
+    }
+
+    /**
+     * Re-applies the most recently undone change, and returns {@code false} if there is
+     * nothing to redo. Running any other command clears what can be redone.
+     *
+     * @throws IllegalStateException if history was never enabled
+     */
+    public boolean redo() {
+        CommandHistory history = requireHistory();
+        CommandHistory.Step step;
+        registry.lockAll();
+        try {
+            step = history.redo();
+        } finally {
+            registry.unlockAll();
+        }
+        return restore(step);
+    }
+
+    private CommandHistory requireHistory() {
+        CommandHistory current = history;
+        if (current == null) {
+            throw new IllegalStateException("History is not enabled; call enableHistory first");
+        }
+        return current;
+    }
+
+    private boolean restore(CommandHistory.Step step) {
+        if (step == null) {
+            return false;
+        }
+        for (CommandResult result : runAll(CommandHistory.restoring(registry, step), null)) {
+            result.failure().ifPresent(failure -> {
+                throw failure;
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Latency histograms and counters for the commands this manager has run.
+     */
+    public CommandMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns whether {@code command}'s request ID has already been applied. The caller
+     * holds the task's stripe lock.
+     */
+    private boolean isDuplicate(Command command, RequestWindow requests) {
+        long requestId = command.requestId();
+        if (requests == null || requestId == Command.NO_REQUEST_ID
+                || !requests.contains(registry.stripe(command.taskName()), requestId)) {
+            return false;
+        }
+        metrics.recordDuplicate();
+        return true;
+    }
+
+    private void remember(Command command, RequestWindow requests) {
+        long requestId = command.requestId();
+        if (requests != null && requestId != Command.NO_REQUEST_ID) {
+            requests.add(registry.stripe(command.taskName()), requestId);
+        }
+    }
+
+    private CommandResult apply(Command command, CommandHistory history) {
+        try {
+            execute(command, history);
+            return CommandResult.success(command);
+        } catch (RuntimeException e) {
+            return CommandResult.failed(command, e);
+        }
+    }
+
+    /**
+     * Executes {@code command} and, with a history, records what it changed. The caller
+     * holds the task's stripe lock so the state read before is the one the command saw.
+     */
+    private void execute(Command command, CommandHistory history) {
+        if (history == null) {
+            execute(command);
+            return;
+        }
+        byte before = CommandHistory.stateOf(registry, command.taskName());
+        execute(command);
+        history.record(command, before);
+    }
+
+    private void execute(Command command) {
+        long start = System.nanoTime();
+        try {
+            dispatch(command);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(command, System.nanoTime() - start, e);
+            throw e;
+        }
+        metrics.recordSuccess(command, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs one command from a {@link CommandRing} straight from its encoded fields,
+     * recording it in the metrics, history and journal like any other. {@code task} is
+     * the task an add or update stores. The caller holds the task's stripe lock. Returns
+     * the command's journal sequence number, 0 without a journal, or -1 if it failed.
+     */
+    long runEncoded(byte opcode, byte argument, String name, Task task) {
+        CommandHistory history = this.history;
+        byte before = history == null ? CommandHistory.ABSENT : CommandHistory.stateOf(registry, name);
+        int type = CommandMetrics.index(opcode);
+        long start = System.nanoTime();
+        try {
+            dispatch(opcode, argument, name, task);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(type, System.nanoTime() - start, e);
+            return -1;
+        }
+        metrics.recordSuccess(type, System.nanoTime() - start);
+        if (history != null) {
+            history.record(opcode, argument, name, before);
+        }
+        return journal == null ? 0 : journal.append(opcode, argument, name);
+    }
+
+    void awaitDurable(long sequence) {
+        if (journal != null && sequence > 0) {
+            journal.awaitDurable(sequence);
+        }
+    }
+
+    private void dispatch(byte opcode, byte argument, String name, Task task) {
+        switch (opcode) {
+            case CommandCodec.ADD -> registry.add(task);
+            case CommandCodec.REMOVE -> registry.remove(name);
+            case CommandCodec.UPDATE -> {
+                // Like UpdateTaskCommand, updating a missing task does nothing
+                if (registry.store().peekState(name) != -1) {
+                    registry.add(task);
+                }
+            }
+            case CommandCodec.CHANGE_STATUS -> {
+                if (registry.changeStatus(name, STATUSES[argument]) == null) {
+                    throw new TaskNotFoundException("Task '" + name + "' not found");
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown command opcode: " + opcode);
+        }
+    }
+
+    private void dispatch(Command command) {
+        switch (command) {
+            case AddTaskCommand add -> add.execute();
+            case RemoveTaskCommand remove -> remove.execute();
+            case UpdateTaskCommand update -> update.execute();
+            case ChangeStatusCommand changeStatus -> changeStatus.execute();
+        }
     }
 }
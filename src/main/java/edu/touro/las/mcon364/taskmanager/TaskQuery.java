@@ -0,0 +1,204 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Builds a filtered listing of a registry's tasks, obtained from {@link TaskRegistry#query()}.
+ * For example, {@code registry.query().status(Status.IN_PROGRESS).priority(Priority.HIGH).limit(10).list()}.
+ * <p>
+ * Status, priority and name-prefix filters are answered by the registry's indexes rather
+ * than by scanning: the query reads only the matching status and priority cells, or walks
+ * the matching branch of the name index when that is smaller. Other filters run on the
+ * candidates that remain. The stream is lazy, so a limit stops the walk as soon as enough
+ * tasks have been found. Like {@link TaskRegistry#forEachByPriority}, the result is weakly
+ * consistent with writes made while it is consumed.
+ */
+public final class TaskQuery {
+    // Names fetched from the name index per lock acquisition
+    private static final int PAGE = 256;
+
+    private final TaskRegistry registry;
+    private final Set<Priority> priorities = EnumSet.allOf(Priority.class);
+    private final Set<Status> statuses = EnumSet.allOf(Status.class);
+    private String prefix;
+    private Predicate<Task> filter;
+    private long limit = Long.MAX_VALUE;
+
+    TaskQuery(TaskRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Keeps only tasks at one of the given priorities.
+     */
+    public TaskQuery priority(Priority first, Priority... rest) {
+        priorities.retainAll(EnumSet.of(first, rest));
+        return this;
+    }
+
+    /**
+     * Keeps only tasks in one of the given statuses.
+     */
+    public TaskQuery status(Status first, Status... rest) {
+        statuses.retainAll(EnumSet.of(first, rest));
+        return this;
+    }
+
+    /**
+     * Keeps only tasks whose names start with {@code prefix}, ignoring case. When this is
+     * the only indexed filter, the first such query builds the registry's name index, as
+     * {@link TaskRegistry#findByPrefix} does.
+     */
+    public TaskQuery namePrefix(String prefix) {
+        this.prefix = prefix.toLowerCase(Locale.ROOT);
+        return this;
+    }
+
+    /**
+     * Keeps only tasks matching {@code predicate}, tested after the indexed filters.
+     */
+    public TaskQuery filter(Predicate<? super Task> predicate) {
+        Predicate<Task> test = predicate::test;
+        filter = filter == null ? test : filter.and(test);
+        return this;
+    }
+
+    /**
+     * Stops after {@code limit} tasks.
+     */
+    public TaskQuery limit(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Returns the matching tasks as a lazy stream. Tasks come in name order when the
+     * name index drives the query and in no particular order otherwise.
+     */
+    public Stream<Task> stream() {
+        Stream<Task> tasks = fromNameIndex() ? byName() : byCell();
+        if (filter != null) {
+            tasks = tasks.filter(filter);
+        }
+        return limit == Long.MAX_VALUE ? tasks : tasks.limit(limit);
+    }
+
+    public List<Task> list() {
+        return stream().toList();
+    }
+
+    /**
+     * Returns the number of matching tasks. Without a prefix or custom filter this reads
+     * the index counters and visits no tasks.
+     */
+    public long count() {
+        if (prefix == null && filter == null) {
+            return Math.min(limit, cellCount());
+        }
+        return stream().count();
+    }
+
+    private boolean fromNameIndex() {
+        if (prefix == null) {
+            return false;
+        }
+        boolean restricted = priorities.size() < Priority.values().length
+                || statuses.size() < Status.values().length;
+        // Only build the name index when nothing narrower exists to scan
+        NameSearchIndex names = restricted ? registry.builtNameSearch() : registry.nameSearch();
+        return names != null && names.countPrefix(prefix) < cellCount();
+    }
+
+    private long cellCount() {
+        long count = 0;
+        for (Status status : statuses) {
+            for (Priority priority : priorities) {
+                count += registry.countByStatusAndPriority(status, priority);
+            }
+        }
+        return count;
+    }
+
+    private Stream<Task> byCell() {
+        List<Stream<Task>> cells = new ArrayList<>(statuses.size() * priorities.size());
+        for (Status status : statuses) {
+            for (Priority priority : priorities) {
+                Stream<String> names = registry.cell(status, priority).stream();
+                if (prefix != null) {
+                    names = names.filter(name -> name.toLowerCase(Locale.ROOT).startsWith(prefix));
+                }
+                cells.add(names.map(name -> new Task(name, priority)));
+            }
+        }
+        return cells.stream().flatMap(cell -> cell);
+    }
+
+    private Stream<Task> byName() {
+        TaskStore store = registry.store();
+        boolean anyPriority = priorities.size() == Priority.values().length;
+        boolean anyStatus = statuses.size() == Status.values().length;
+        Stream<Task> tasks = StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                        new PrefixIterator(registry.nameSearch()), Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(store::get);
+        return tasks.filter(task -> task != null
+                && (anyPriority || priorities.contains(task.priority()))
+                && (anyStatus || statuses.contains(store.getStatus(task.name()))));
+    }
+
+    /**
+     * Walks the names under the query's prefix a page at a time, resuming after the last
+     * name seen so writes between pages neither repeat nor skip surviving names.
+     */
+    private final class PrefixIterator implements Iterator<String> {
+        private final NameSearchIndex index;
+        private final int pageSize;
+        private List<String> page;
+        private int next;
+        private boolean exhausted;
+
+        PrefixIterator(NameSearchIndex index) {
+            this.index = index;
+            // Without further filtering, the limit says exactly how many names are needed
+            this.pageSize = (int) (filter == null && priorities.size() == Priority.values().length
+                    && statuses.size() == Status.values().length ? Math.max(1, Math.min(limit, PAGE)) : PAGE);
+            this.page = List.of();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < page.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            String after = page.isEmpty() ? null : page.get(page.size() - 1);
+            page = index.prefix(prefix, after, pageSize);
+            next = 0;
+            exhausted = page.size() < pageSize;
+            return !page.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(next++);
+        }
+    }
+}
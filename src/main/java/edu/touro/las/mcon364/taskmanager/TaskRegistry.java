@@ -1,14 +1,78 @@
 package edu.touro.las.mcon364.taskmanager;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
+/**
+ * Thread-safe task registry. Reads are lock-free; writes take one of a fixed set of
+ * striped locks chosen by task name, so commands on different tasks run in parallel
+ * while commands on the same task are serialized. Tasks live in a pluggable
+ * {@link TaskStore}, a {@link ConcurrentTaskStore} unless another is supplied.
+ */
 public class TaskRegistry {
-    private final Map<String, Task> tasks = new HashMap<>();
+    private static final int STRIPES = 64;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final TaskStore tasks;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    // Secondary index: names of the tasks in each status and priority, kept in step with
+    // tasks under the stripe locks. Per-priority and per-status views sum over a row or column.
+    private final Map<Status, Map<Priority, Set<String>>> cells = new EnumMap<>(Status.class);
+    private final List<TaskIndex> indexes = new CopyOnWriteArrayList<>();
+    private volatile NameSearchIndex nameSearch;
+    private volatile SchedulingQueue schedulingQueue;
+
+    public TaskRegistry() {
+        this(new ConcurrentTaskStore());
+    }
+
+    public TaskRegistry(TaskStore store) {
+        this.tasks = store;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        for (Status status : Status.values()) {
+            Map<Priority, Set<String>> row = new EnumMap<>(Priority.class);
+            for (Priority priority : Priority.values()) {
+                row.put(priority, ConcurrentHashMap.newKeySet());
+            }
+            cells.put(status, row);
+        }
+    }
 
     public void add(Task task) {
-        tasks.put(task.name(), task);
+        Lock lock = lockFor(task.name());
+        lock.lock();
+        try {
+            Task previous = tasks.put(task);
+            if (previous == null) {
+                cell(Status.TODO, task.priority()).add(task.name());
+            } else if (previous.priority() != task.priority()) {
+                Status status = STATUSES[tasks.peekState(task.name()) >> 2];
+                cell(status, task.priority()).add(task.name());
+                cell(status, previous.priority()).remove(previous.name());
+            }
+            for (TaskIndex index : indexes) {
+                index.onPut(previous, task);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     public Optional<Task> get(String name) {
@@ -16,10 +80,460 @@ public class TaskRegistry {
     }
 
     public void remove(String name) {
-        tasks.remove(name);
+        removeTask(name);
+    }
+
+    private Task removeTask(String name) {
+        Lock lock = lockFor(name);
+        lock.lock();
+        try {
+            byte state = tasks.peekState(name);
+            Task previous = tasks.remove(name);
+            if (previous != null) {
+                cell(STATUSES[state >> 2], previous.priority()).remove(name);
+                for (TaskIndex index : indexes) {
+                    index.onRemove(previous);
+                }
+            }
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the status of the named task; a task starts out as {@link Status#TODO}.
+     */
+    public Optional<Status> getStatus(String name) {
+        return Optional.ofNullable(tasks.getStatus(name));
+    }
+
+    /**
+     * Moves the named task to {@code status} and returns the status it had, or an empty
+     * result if there is no such task.
+     */
+    public Optional<Status> setStatus(String name, Status status) {
+        return Optional.ofNullable(changeStatus(name, status));
+    }
+
+    /**
+     * Like {@link #setStatus}, but returns {@code null} for a missing task, for callers
+     * that must not allocate. Only an attached {@link TaskIndex} makes a status change
+     * allocate, for the {@link Task} passed to it.
+     */
+    Status changeStatus(String name, Status status) {
+        Lock lock = lockFor(name);
+        lock.lock();
+        try {
+            Status previous = tasks.setStatus(name, status);
+            if (previous != null && previous != status) {
+                Priority priority = PRIORITIES[tasks.peekState(name) & 3];
+                cell(status, priority).add(name);
+                cell(previous, priority).remove(name);
+                if (!indexes.isEmpty()) {
+                    Task task = new Task(name, priority);
+                    for (TaskIndex index : indexes) {
+                        index.onStatusChange(task, previous, status);
+                    }
+                }
+            }
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores {@code task} with {@code status} as one step, as restoring a saved task needs.
+     */
+    void restore(Task task, Status status) {
+        Lock lock = lockFor(task.name());
+        lock.lock();
+        try {
+            add(task);
+            setStatus(task.name(), status);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds every task in {@code batch} as {@link #add} would, in iteration order, after
+     * sizing the store for the result once. Tasks are grouped by stripe so each stripe
+     * lock is taken once per batch rather than once per task. Other threads may see the
+     * batch partly applied.
+     */
+    public void addAll(Collection<? extends Task> batch) {
+        Task[] array = batch.toArray(new Task[0]);
+        putAll(array, null, array.length);
+    }
+
+    /**
+     * Bulk insert behind {@link #addAll}: stores the first {@code count} tasks and, where
+     * {@code statuses} has a non-null entry, moves the task to that status. A later task
+     * with the same name wins.
+     */
+    void putAll(Task[] batch, Status[] statuses, int count) {
+        ensureCapacity(tasks.size() + count);
+        // Counting sort by stripe; stable, so repeats of a name keep their order
+        int[] starts = new int[STRIPES + 1];
+        int[] stripes = new int[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = stripe(batch[i].name());
+            starts[stripes[i] + 1]++;
+        }
+        for (int s = 0; s < STRIPES; s++) {
+            starts[s + 1] += starts[s];
+        }
+        int[] order = new int[count];
+        int[] next = Arrays.copyOf(starts, STRIPES);
+        for (int i = 0; i < count; i++) {
+            order[next[stripes[i]]++] = i;
+        }
+        for (int s = 0; s < STRIPES; s++) {
+            if (starts[s] == starts[s + 1]) {
+                continue;
+            }
+            locks[s].lock();
+            try {
+                for (int k = starts[s]; k < starts[s + 1]; k++) {
+                    int i = order[k];
+                    add(batch[i]);
+                    if (statuses != null && statuses[i] != null) {
+                        setStatus(batch[i].name(), statuses[i]);
+                    }
+                }
+            } finally {
+                locks[s].unlock();
+            }
+        }
+    }
+
+    /**
+     * Lets the store size its tables for {@code expectedSize} tasks ahead of a bulk load.
+     */
+    void ensureCapacity(int expectedSize) {
+        lockAll();
+        try {
+            tasks.ensureCapacity(expectedSize);
+        } finally {
+            unlockAll();
+        }
     }
 
+    /**
+     * Returns an unmodifiable point-in-time copy of the registry. All stripes are held
+     * while copying, so the result never mixes state from before and after a write. On a
+     * {@link VersionedTaskStore} the copy is made from a snapshot and writers keep going.
+     */
     public Map<String, Task> getAll() {
+        if (tasks instanceof VersionedTaskStore versioned) {
+            // A snapshot is already consistent, so writers need not be stopped
+            return versioned.snapshot().toMap();
+        }
+        lockAll();
+        try {
+            Map<String, Task> copy = new HashMap<>(Math.max(16, (int) (tasks.size() / 0.75f) + 1));
+            tasks.forEach(task -> copy.put(task.name(), task));
+            return Collections.unmodifiableMap(copy);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Returns an immutable view of every task and its status at one version, in O(1).
+     * Readers can iterate it for as long as they like while writers carry on. Needs a
+     * registry built on a {@link VersionedTaskStore}.
+     *
+     * @throws IllegalStateException if the registry uses another kind of store
+     */
+    public TaskSnapshot snapshot() {
+        if (tasks instanceof VersionedTaskStore versioned) {
+            return versioned.snapshot();
+        }
+        throw new IllegalStateException("Snapshots need a registry built on a VersionedTaskStore, not "
+                + tasks.getClass().getSimpleName());
+    }
+
+    /**
+     * Returns the number of tasks at the given priority without scanning the registry.
+     */
+    public int countByPriority(Priority priority) {
+        int count = 0;
+        for (Status status : Status.values()) {
+            count += cell(status, priority).size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of tasks in the given status without scanning the registry.
+     */
+    public int countByStatus(Status status) {
+        int count = 0;
+        for (Priority priority : Priority.values()) {
+            count += cell(status, priority).size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of tasks in the given status at the given priority without
+     * scanning the registry.
+     */
+    public int countByStatusAndPriority(Status status, Priority priority) {
+        return cell(status, priority).size();
+    }
+
+    /**
+     * Returns the tasks at the given priority, read from the priority index.
+     */
+    public List<Task> getByPriority(Priority priority) {
+        List<Task> result = new ArrayList<>(countByPriority(priority));
+        forEachByPriority(priority, result::add);
+        return result;
+    }
+
+    /**
+     * Visits the tasks at the given priority without copying the index. Like the
+     * iterators of {@link ConcurrentHashMap}, this is weakly consistent with writes
+     * made during the visit.
+     */
+    public void forEachByPriority(Priority priority, Consumer<Task> action) {
+        for (Status status : Status.values()) {
+            forEachByStatusAndPriority(status, priority, action);
+        }
+    }
+
+    /**
+     * Returns the tasks in the given status, read from the status index.
+     */
+    public List<Task> getByStatus(Status status) {
+        List<Task> result = new ArrayList<>(countByStatus(status));
+        for (Priority priority : Priority.values()) {
+            forEachByStatusAndPriority(status, priority, result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the tasks in the given status at the given priority, such as every
+     * IN_PROGRESS HIGH task, straight from one index cell.
+     */
+    public List<Task> getByStatusAndPriority(Status status, Priority priority) {
+        List<Task> result = new ArrayList<>(countByStatusAndPriority(status, priority));
+        forEachByStatusAndPriority(status, priority, result::add);
+        return result;
+    }
+
+    /**
+     * Visits the tasks in one status and priority; weakly consistent like
+     * {@link #forEachByPriority}.
+     */
+    public void forEachByStatusAndPriority(Status status, Priority priority, Consumer<Task> action) {
+        for (String name : cell(status, priority)) {
+            action.accept(new Task(name, priority));
+        }
+    }
+
+    /**
+     * Starts a query over this registry's tasks. See {@link TaskQuery}.
+     */
+    public TaskQuery query() {
+        return new TaskQuery(this);
+    }
+
+    /**
+     * Returns the live index cell naming the tasks in one status and priority.
+     */
+    Set<String> cell(Status status, Priority priority) {
+        return cells.get(status).get(priority);
+    }
+
+    /**
+     * Groups every task by priority, as a consistent copy built from the priority index.
+     */
+    public Map<Priority, List<Task>> getTasksByPriority() {
+        Map<Priority, List<Task>> grouped = new EnumMap<>(Priority.class);
+        lockAll();
+        try {
+            for (Priority priority : Priority.values()) {
+                grouped.put(priority, List.copyOf(getByPriority(priority)));
+            }
+        } finally {
+            unlockAll();
+        }
+        return Collections.unmodifiableMap(grouped);
+    }
+
+    /**
+     * Returns up to {@code limit} tasks whose names start with {@code prefix}, ignoring
+     * case, in name order. The first search builds the name index from the current
+     * contents; after that it is maintained by every add and remove.
+     */
+    public List<Task> findByPrefix(String prefix, int limit) {
+        return resolve(nameSearch().prefix(prefix, limit));
+    }
+
+    /**
+     * Returns up to {@code limit} tasks whose names contain {@code text}, ignoring case.
+     * Uses the same name index as {@link #findByPrefix}.
+     */
+    public List<Task> findBySubstring(String text, int limit) {
+        return resolve(nameSearch().substring(text, limit));
+    }
+
+    /**
+     * Returns the task a worker should pick up next: the oldest {@link Status#TODO} task
+     * at the highest priority. The first scheduling call builds the priority queue from
+     * the current contents, in no particular order within a priority; tasks that become
+     * TODO after that are queued in arrival order. Use {@link TaskManager#pollNext} to
+     * claim it.
+     */
+    public Optional<Task> peekNext() {
+        return Optional.ofNullable(schedulingQueue().peek());
+    }
+
+    /**
+     * Returns up to {@code k} TODO tasks in the order {@link TaskManager#pollNext} would
+     * hand them out.
+     */
+    public List<Task> topK(int k) {
+        return schedulingQueue().top(k);
+    }
+
+    private SchedulingQueue schedulingQueue() {
+        SchedulingQueue queue = schedulingQueue;
+        if (queue == null) {
+            synchronized (indexes) {
+                queue = schedulingQueue;
+                if (queue == null) {
+                    queue = new SchedulingQueue();
+                    attach(queue);
+                    schedulingQueue = queue;
+                }
+            }
+        }
+        return queue;
+    }
+
+    private List<Task> resolve(List<String> names) {
+        List<Task> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            Task task = tasks.get(name);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the name index if a search has already built it, without building it.
+     */
+    NameSearchIndex builtNameSearch() {
+        return nameSearch;
+    }
+
+    TaskStore store() {
         return tasks;
     }
+
+    NameSearchIndex nameSearch() {
+        NameSearchIndex index = nameSearch;
+        if (index == null) {
+            synchronized (indexes) {
+                index = nameSearch;
+                if (index == null) {
+                    index = new NameSearchIndex();
+                    attach(index);
+                    nameSearch = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Fills {@code index} from the current contents and keeps it updated from then on.
+     */
+    void attach(TaskIndex index) {
+        lockAll();
+        try {
+            tasks.forEachEntry((task, status) -> {
+                index.onPut(null, task);
+                if (status != Status.TODO) {
+                    index.onStatusChange(task, Status.TODO, status);
+                }
+            });
+            indexes.add(index);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Returns a change feed that records every mutation from now on in a ring of
+     * {@code capacity} events, rounded up to a power of two. Each feed is independent;
+     * close it to stop recording.
+     */
+    public ChangeFeed openChangeFeed(int capacity) {
+        ChangeFeed feed = new ChangeFeed(this, capacity);
+        lockAll();
+        try {
+            // No backfill: the feed starts at the current state and sees only later changes
+            indexes.add(feed.publisher());
+        } finally {
+            unlockAll();
+        }
+        return feed;
+    }
+
+    void detach(TaskIndex index) {
+        indexes.remove(index);
+    }
+
+    /**
+     * Visits every task with its status while the caller holds {@link #lockAll}.
+     */
+    void forEachEntry(BiConsumer<Task, Status> action) {
+        tasks.forEachEntry(action);
+    }
+
+    /**
+     * Returns the lock guarding writes to the given task name. The lock is reentrant,
+     * so a caller holding it may still go through {@link #add} and {@link #remove}.
+     */
+    Lock lockFor(String name) {
+        return locks[stripe(name)];
+    }
+
+    /**
+     * Returns the lock of one stripe, as numbered by {@link #stripe}.
+     */
+    Lock stripeLock(int stripe) {
+        return locks[stripe];
+    }
+
+    int stripeCount() {
+        return STRIPES;
+    }
+
+    int stripe(String name) {
+        int h = name.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
 }
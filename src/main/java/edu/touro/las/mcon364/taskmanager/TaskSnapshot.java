@@ -0,0 +1,82 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable, consistent view of a registry at one version, taken with
+ * {@link TaskRegistry#snapshot()}. Writes made after the snapshot was taken never
+ * show through, however long the reader holds on to it, and holding it does not
+ * block or slow writers.
+ */
+public final class TaskSnapshot {
+    private final PersistentTaskMap tasks;
+    private final long version;
+
+    TaskSnapshot(PersistentTaskMap tasks, long version) {
+        this.tasks = tasks;
+        this.version = version;
+    }
+
+    /**
+     * Returns the number of writes applied to the store before this snapshot. Later
+     * snapshots of the same store have higher versions.
+     */
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public Optional<Task> get(String name) {
+        PersistentTaskMap.Entry entry = tasks.get(name);
+        return entry == null ? Optional.empty() : Optional.of(entry.task());
+    }
+
+    public Optional<Status> getStatus(String name) {
+        PersistentTaskMap.Entry entry = tasks.get(name);
+        return entry == null ? Optional.empty() : Optional.of(entry.status());
+    }
+
+    public void forEach(Consumer<Task> action) {
+        for (PersistentTaskMap.Entry entry : tasks) {
+            action.accept(entry.task());
+        }
+    }
+
+    public void forEachEntry(BiConsumer<Task, Status> action) {
+        tasks.forEach(action);
+    }
+
+    /**
+     * Returns the snapshot's tasks in no particular order.
+     */
+    public Stream<Task> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(tasks.iterator(), tasks.size(),
+                Spliterator.SIZED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE), false)
+                .map(PersistentTaskMap.Entry::task);
+    }
+
+    /**
+     * Copies the snapshot into an unmodifiable map from name to task.
+     */
+    public Map<String, Task> toMap() {
+        Map<String, Task> copy = new HashMap<>(Math.max(16, (int) (tasks.size() / 0.75f) + 1));
+        forEach(task -> copy.put(task.name(), task));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    PersistentTaskMap tasks() {
+        return tasks;
+    }
+}
@@ -0,0 +1,82 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Primary storage behind a {@link TaskRegistry}, keyed by task name. Each entry holds
+ * a task and its {@link Status}. The registry serializes writes for any one name with
+ * its stripe locks, but writes for different names and all reads may arrive
+ * concurrently, so implementations must be thread-safe.
+ */
+public interface TaskStore {
+
+    /**
+     * Stores {@code task} under its name and returns the task it replaced, or {@code null}.
+     * A replaced task's status carries over; a new task starts as {@link Status#TODO}.
+     */
+    Task put(Task task);
+
+    /**
+     * Returns the task stored under {@code name}, or {@code null}.
+     */
+    Task get(String name);
+
+    /**
+     * Removes the task stored under {@code name} and returns it, or {@code null}.
+     */
+    Task remove(String name);
+
+    /**
+     * Returns the status of the task stored under {@code name}, or {@code null}.
+     */
+    Status getStatus(String name);
+
+    /**
+     * Sets the status of the task stored under {@code name} and returns its previous
+     * status. Returns {@code null} and changes nothing if there is no such task.
+     */
+    Status setStatus(String name, Status status);
+
+    /**
+     * Returns the priority and status of the task stored under {@code name}, packed as
+     * {@code status ordinal << 2 | priority ordinal}, or -1 if there is none. Unlike
+     * {@link #get} plus {@link #getStatus} this is one lookup and need not materialize a
+     * {@link Task}; the default falls back to those two calls.
+     */
+    default byte getState(String name) {
+        Task task = get(name);
+        Status status = task == null ? null : getStatus(name);
+        return status == null ? -1 : (byte) (status.ordinal() << 2 | task.priority().ordinal());
+    }
+
+    /**
+     * Like {@link #getState}, for the registry's own bookkeeping reads rather than a
+     * caller's: a caching store answers from the cache if it can but neither counts the
+     * read nor caches what it loads. The default is {@link #getState}.
+     */
+    default byte peekState(String name) {
+        return getState(name);
+    }
+
+    int size();
+
+    /**
+     * Hints that the store is about to hold {@code expectedSize} tasks, so it can size its
+     * tables once instead of growing them step by step. The registry calls this with every
+     * stripe lock held. Does nothing by default.
+     */
+    default void ensureCapacity(int expectedSize) {}
+
+    /**
+     * Visits every stored task with its status. {@code action} must not write to this store.
+     */
+    void forEachEntry(BiConsumer<Task, Status> action);
+
+    /**
+     * Visits every stored task. {@code action} must not write to this store.
+     */
+    default void forEach(Consumer<Task> action) {
+        forEachEntry((task, status) -> action.accept(task));
+    }
+}
@@ -0,0 +1,186 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel of named timers, counted in ticks. Each of its five levels
+ * has 64 slots, and a slot at level {@code k} spans 64<sup>k</sup> ticks, so deadlines
+ * up to 2<sup>30</sup> ticks ahead are placed directly and later ones are parked in the
+ * farthest slot until they come into range. A slot is a doubly linked list, so
+ * scheduling and cancelling are O(1). As time passes, each slot of a higher level is
+ * cascaded into the levels below when its span begins, so every timer is moved at most
+ * once per level. Not thread-safe; callers synchronize.
+ */
+final class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+
+    static final class Timer {
+        final String name;
+        final long deadline;
+        private Timer previous;
+        private Timer next;
+        // The list this timer is linked into, or null once it is due
+        private Timer[] slots;
+        private int slot;
+
+        private Timer(String name, long deadline) {
+            this.name = name;
+            this.deadline = deadline;
+        }
+    }
+
+    // Heads of each level's slot lists
+    private final Timer[][] wheels = new Timer[LEVELS][SLOTS];
+    private final Map<String, Timer> timers = new HashMap<>();
+    private long currentTick;
+
+    TimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return timers.size();
+    }
+
+    /**
+     * Arms a timer for {@code name} at {@code deadline}, replacing any it had. A deadline
+     * already passed fires on the next tick.
+     */
+    void schedule(String name, long deadline) {
+        cancel(name);
+        Timer timer = new Timer(name, deadline);
+        timers.put(name, timer);
+        place(timer, currentTick + 1);
+    }
+
+    /**
+     * Disarms the timer for {@code name} and returns whether it had one. A timer already
+     * handed out as due is disarmed too, so {@link #expire} will refuse it.
+     */
+    boolean cancel(String name) {
+        Timer timer = timers.remove(name);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    /**
+     * Returns the deadline of the timer for {@code name}, or -1 if it has none.
+     */
+    long deadline(String name) {
+        Timer timer = timers.get(name);
+        return timer == null ? -1 : timer.deadline;
+    }
+
+    /**
+     * Moves the wheel forward to {@code tick} and adds every timer that fell due on the
+     * way to {@code due}. Due timers stay armed until {@link #expire} or {@link #cancel}
+     * retires them. Costs one step per tick passed while any timer is armed.
+     */
+    void advance(long tick, List<Timer> due) {
+        if (timers.isEmpty()) {
+            currentTick = Math.max(currentTick, tick);
+            return;
+        }
+        while (currentTick < tick) {
+            currentTick++;
+            // Refill from the top down, so a cascaded timer can land in a slot cascaded next
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                }
+            }
+            Timer[] slots = wheels[0];
+            int slot = (int) currentTick & SLOT_MASK;
+            while (slots[slot] != null) {
+                Timer timer = slots[slot];
+                unlink(timer);
+                due.add(timer);
+            }
+        }
+    }
+
+    /**
+     * Retires a timer returned by {@link #advance} and returns {@code true}, or returns
+     * {@code false} if it has been cancelled or replaced since.
+     */
+    boolean expire(Timer timer) {
+        if (timers.get(timer.name) != timer) {
+            return false;
+        }
+        timers.remove(timer.name);
+        return true;
+    }
+
+    private void cascade(int level, int slot) {
+        Timer timer = wheels[level][slot];
+        wheels[level][slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.previous = null;
+            timer.next = null;
+            timer.slots = null;
+            // The current tick's slot is processed right after cascading
+            place(timer, currentTick);
+            timer = next;
+        }
+    }
+
+    // Links the timer into the slot that comes up at its deadline, or at earliest if that has passed
+    private void place(Timer timer, long earliest) {
+        long delta = timer.deadline - currentTick;
+        int level;
+        int slot;
+        if (delta < SLOTS) {
+            level = 0;
+            slot = (int) Math.max(timer.deadline, earliest) & SLOT_MASK;
+        } else {
+            level = 1;
+            while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            if (delta >= 1L << (SLOT_BITS * LEVELS)) {
+                // Out of range: park in the slot cascaded last and place it again from there
+                slot = (int) ((currentTick >>> (SLOT_BITS * level)) - 1) & SLOT_MASK;
+            } else {
+                slot = (int) (timer.deadline >>> (SLOT_BITS * level)) & SLOT_MASK;
+            }
+        }
+        Timer[] slots = wheels[level];
+        timer.slots = slots;
+        timer.slot = slot;
+        timer.next = slots[slot];
+        if (timer.next != null) {
+            timer.next.previous = timer;
+        }
+        slots[slot] = timer;
+    }
+
+    private static void unlink(Timer timer) {
+        if (timer.slots == null) {
+            return;
+        }
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            timer.slots[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.slots = null;
+    }
+}
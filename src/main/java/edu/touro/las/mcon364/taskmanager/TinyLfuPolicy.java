@@ -0,0 +1,153 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import java.util.LinkedHashMap;
+import java.util.function.Consumer;
+
+/**
+ * W-TinyLFU {@link EvictionPolicy}. New names enter a small LRU window; a name pushed
+ * out of the window only displaces the next victim of the main area if it has been
+ * asked for more often, judged by a compact frequency sketch of recent lookups. The
+ * main area is a segmented LRU: names hit again while on probation move to a protected
+ * segment, so a burst of one-off names cannot flush the working set.
+ */
+final class TinyLfuPolicy implements EvictionPolicy {
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final FrequencySketch sketch;
+    // Access-ordered, eldest first
+    private final LinkedHashMap<String, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Boolean> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Boolean> protectedNames = new LinkedHashMap<>(16, 0.75f, true);
+
+    TinyLfuPolicy(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        windowCapacity = Math.max(1, capacity / 100);
+        mainCapacity = capacity - windowCapacity;
+        protectedCapacity = mainCapacity * 4 / 5;
+        sketch = new FrequencySketch(capacity);
+    }
+
+    @Override
+    public void onHit(String name) {
+        sketch.increment(name);
+        if (window.get(name) != null || protectedNames.get(name) != null) {
+            return;
+        }
+        if (probation.remove(name) != null) {
+            protectedNames.put(name, Boolean.TRUE);
+            if (protectedNames.size() > protectedCapacity) {
+                probation.put(eldest(protectedNames), Boolean.TRUE);
+            }
+        }
+    }
+
+    @Override
+    public void onInsert(String name, Consumer<String> evict) {
+        sketch.increment(name);
+        window.put(name, Boolean.TRUE);
+        if (window.size() <= windowCapacity) {
+            return;
+        }
+        String candidate = eldest(window);
+        if (probation.size() + protectedNames.size() < mainCapacity) {
+            probation.put(candidate, Boolean.TRUE);
+            return;
+        }
+        LinkedHashMap<String, Boolean> victims = probation.isEmpty() ? protectedNames : probation;
+        if (victims.isEmpty()) {
+            evict.accept(candidate);
+            return;
+        }
+        String victim = victims.keySet().iterator().next();
+        if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+            victims.remove(victim);
+            probation.put(candidate, Boolean.TRUE);
+            evict.accept(victim);
+        } else {
+            evict.accept(candidate);
+        }
+    }
+
+    @Override
+    public void onRemove(String name) {
+        if (window.remove(name) == null && probation.remove(name) == null) {
+            protectedNames.remove(name);
+        }
+    }
+
+    private static String eldest(LinkedHashMap<String, Boolean> names) {
+        String eldest = names.keySet().iterator().next();
+        names.remove(eldest);
+        return eldest;
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, sixteen to a {@code long}. Each name bumps one
+     * counter in each of four rows and its estimate is the smallest of the four. Once
+     * ten times the capacity has been counted every counter is halved, so the estimate
+     * follows recent popularity rather than all-time totals.
+     */
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long HALF_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int size = Integer.highestOneBit(Math.max(16, Math.min(capacity, 1 << 26)) - 1) << 1;
+            table = new long[size];
+            sampleSize = 10 * Math.max(16, capacity);
+        }
+
+        int frequency(String name) {
+            int hash = spread(name.hashCode());
+            int frequency = 15;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, (int) ((table[indexOf(hash, row)] >>> offsetOf(hash, row)) & 0xF));
+            }
+            return frequency;
+        }
+
+        void increment(String name) {
+            int hash = spread(name.hashCode());
+            boolean counted = false;
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = indexOf(hash, row);
+                int offset = offsetOf(hash, row);
+                if (((table[index] >>> offset) & 0xF) != 0xF) {
+                    table[index] += 1L << offset;
+                    counted = true;
+                }
+            }
+            if (counted && ++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & HALF_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        private int indexOf(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            return (int) (h ^ (h >>> 32)) & (table.length - 1);
+        }
+
+        // Each row picks one of the sixteen counters in its long from its own hash byte
+        private static int offsetOf(int hash, int row) {
+            return ((hash >>> (row << 3)) & 0xF) << 2;
+        }
+
+        private static int spread(int h) {
+            h ^= h >>> 16;
+            h *= 0x45d9f3b;
+            return h ^ (h >>> 16);
+        }
+    }
+}
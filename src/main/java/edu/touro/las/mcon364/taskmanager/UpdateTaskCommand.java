@@ -1,28 +1,58 @@
 package edu.touro.las.mcon364.taskmanager;
 
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 public final class UpdateTaskCommand implements Command {
     private final TaskRegistry registry;
     private final String taskName;
     private final Priority newPriority;
+    private final long requestId;
 
     public UpdateTaskCommand(TaskRegistry registry, String taskName, Priority newPriority) {
+        this(registry, taskName, newPriority, NO_REQUEST_ID);
+    }
+
+    /**
+     * Creates the command as request {@code requestId}; see {@link Command#requestId}.
+     */
+    public UpdateTaskCommand(TaskRegistry registry, String taskName, Priority newPriority, long requestId) {
         this.registry = registry;
         this.taskName = taskName;
         this.newPriority = newPriority;
+        this.requestId = requestId;
     }
 
     public void execute() {
-        // NOTE: This demonstrates old-style null checking
-        // Students should refactor to use Optional and custom exceptions
-        var existing = Optional.of(registry.get(taskName))
-                .orElseThrow(() -> new TaskNotFoundException("Task '" + taskName + "' not found"));
-
-        if (existing.isPresent()) {
-            // Create a new task with updated priority (tasks are immutable)
-            Task updated = new Task(existing.get().name(), newPriority);
-            registry.add(updated);  // This replaces the old task
+        // Hold the task's lock across the read and the re-add so a concurrent
+        // remove cannot slip in between and have the update resurrect the task.
+        Lock lock = registry.lockFor(taskName);
+        lock.lock();
+        try {
+            // NOTE: This demonstrates old-style null checking
+            // Students should refactor to use Optional and custom exceptions
+            var existing = Optional.of(registry.get(taskName))
+                    .orElseThrow(() -> new TaskNotFoundException("Task '" + taskName + "' not found"));
+
+            if (existing.isPresent()) {
+                // Create a new task with updated priority (tasks are immutable)
+                Task updated = new Task(existing.get().name(), newPriority);
+                registry.add(updated);  // This replaces the old task
+            }
+        } finally {
+            lock.unlock();
         }
     }
+
+    public String taskName() {
+        return taskName;
+    }
+
+    public Priority newPriority() {
+        return newPriority;
+    }
+
+    public long requestId() {
+        return requestId;
+    }
 }
@@ -0,0 +1,156 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the asynchronous single-writer dispatcher.
+ */
+class AsyncCommandDispatcherTest {
+    private TaskRegistry registry;
+    private AsyncCommandDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TaskRegistry();
+        dispatcher = new TaskManager(registry).startAsync(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+    }
+
+    @Test
+    @DisplayName("Submitted command should be applied when its future completes")
+    void testSubmit() throws Exception {
+        CompletableFuture<Void> future =
+                dispatcher.submit(new AddTaskCommand(registry, new Task("Task", Priority.HIGH)));
+
+        future.get(5, TimeUnit.SECONDS);
+
+        assertEquals(Priority.HIGH, registry.get("Task").get().priority());
+    }
+
+    @Test
+    @DisplayName("Commands from many producers should all be applied")
+    void testManyProducers() throws Exception {
+        int producers = 8;
+        int perProducer = 500;
+        List<Thread> threads = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    CompletableFuture<Void> future = dispatcher.submit(
+                            new AddTaskCommand(registry, new Task("P" + id + "-" + i, Priority.LOW)));
+                    synchronized (futures) {
+                        futures.add(future);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(producers * perProducer, registry.getAll().size());
+    }
+
+    @Test
+    @DisplayName("A failing command should complete its future exceptionally")
+    void testFailurePropagates() throws Exception {
+        CompletableFuture<Void> failed = dispatcher.submit(new RemoveTaskCommand(null, "Task"));
+        CompletableFuture<Void> next =
+                dispatcher.submit(new AddTaskCommand(registry, new Task("Task", Priority.LOW)));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(NullPointerException.class, e.getCause());
+        next.get(5, TimeUnit.SECONDS);
+        assertTrue(registry.get("Task").isPresent(), "Writer should keep going after a failure");
+    }
+
+    @Test
+    @DisplayName("close should apply queued commands and reject new ones")
+    void testClose() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(dispatcher.submit(new AddTaskCommand(registry, new Task("Task " + i, Priority.MEDIUM))));
+        }
+
+        dispatcher.close();
+
+        assertTrue(futures.stream().allMatch(f -> f.isDone() && !f.isCompletedExceptionally()),
+                "Everything queued before close should be applied");
+        assertEquals(100, registry.getAll().size());
+        assertThrows(IllegalStateException.class,
+                () -> dispatcher.submit(new RemoveTaskCommand(registry, "Task 0")));
+    }
+
+    @Test
+    @DisplayName("A coalescing dispatcher should complete every future and reach the same state")
+    void testCoalescing() throws Exception {
+        TaskManager manager = new TaskManager(registry);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try (AsyncCommandDispatcher coalescing = manager.startAsync(4096, true)) {
+            futures.add(coalescing.submit(new AddTaskCommand(registry, new Task("Task", Priority.LOW))));
+            for (int i = 0; i < 1000; i++) {
+                futures.add(coalescing.submit(new UpdateTaskCommand(registry, "Task", Priority.values()[i % 3])));
+            }
+            futures.add(coalescing.submit(new AddTaskCommand(registry, new Task("Gone", Priority.LOW))));
+            futures.add(coalescing.submit(new RemoveTaskCommand(registry, "Gone")));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(Priority.values()[999 % 3], registry.get("Task").get().priority());
+        assertTrue(registry.get("Gone").isEmpty());
+        assertEquals(futures.size(), manager.metrics().getExecutions() + manager.metrics().getCoalesced());
+    }
+
+    @Test
+    @DisplayName("Closing from a future's callback should not deadlock the writer")
+    void testCloseFromCallback() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        AtomicReference<String> closedOn = new AtomicReference<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        // Holding the task's lock keeps the first future pending until the callback is attached
+        Lock lock = registry.lockFor("First");
+        lock.lock();
+        try {
+            futures.add(dispatcher.submit(new AddTaskCommand(registry, new Task("First", Priority.HIGH))));
+            futures.get(0).whenComplete((ignored, failure) -> {
+                closedOn.set(Thread.currentThread().getName());
+                dispatcher.close();
+                closed.countDown();
+            });
+            for (int i = 0; i < 10; i++) {
+                futures.add(dispatcher.submit(new AddTaskCommand(registry, new Task("Task " + i, Priority.LOW))));
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        assertTrue(closed.await(5, TimeUnit.SECONDS), "close() from the callback should return");
+        assertEquals("task-command-writer", closedOn.get());
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(11, registry.getAll().size(), "Commands queued before the close should still be applied");
+        assertThrows(IllegalStateException.class,
+                () -> dispatcher.submit(new RemoveTaskCommand(registry, "First")));
+    }
+}
@@ -0,0 +1,146 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the read-through task cache and its eviction policies.
+ */
+class CachingTaskStoreTest {
+
+    @Test
+    @DisplayName("Lookups should read through once and then be answered from the cache")
+    void testReadThrough() {
+        CachingTaskStore cache = new CachingTaskStore(new OffHeapTaskStore(), 100);
+        TaskRegistry registry = new TaskRegistry(cache);
+        registry.add(new Task("Task", Priority.HIGH));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Optional.of(new Task("Task", Priority.HIGH)), registry.get("Task"));
+        }
+        assertEquals(Optional.of(Status.TODO), registry.getStatus("Task"));
+        assertEquals(Optional.empty(), registry.get("Missing"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.misses(), "One load for the task and one for the missing name");
+        assertEquals(5, stats.hits());
+        assertEquals(1, cache.cachedSize(), "Missing names should not be cached");
+    }
+
+    @Test
+    @DisplayName("Add, update, remove and status commands should invalidate the cached task")
+    void testInvalidation() {
+        CachingTaskStore cache = new CachingTaskStore(new OpenAddressingTaskStore(), 100, EvictionPolicy::tinyLfu);
+        TaskRegistry registry = new TaskRegistry(cache);
+        registry.add(new Task("Task", Priority.LOW));
+        registry.get("Task");
+
+        new UpdateTaskCommand(registry, "Task", Priority.HIGH).execute();
+        assertEquals(Optional.of(new Task("Task", Priority.HIGH)), registry.get("Task"));
+        new ChangeStatusCommand(registry, "Task", Status.DONE).execute();
+        assertEquals(Optional.of(Status.DONE), registry.getStatus("Task"));
+        new AddTaskCommand(registry, new Task("Task", Priority.MEDIUM)).execute();
+        assertEquals(Optional.of(new Task("Task", Priority.MEDIUM)), registry.get("Task"));
+        new RemoveTaskCommand(registry, "Task").execute();
+        assertEquals(Optional.empty(), registry.get("Task"));
+        assertEquals(0, cache.cachedSize());
+        assertTrue(cache.stats().invalidations() >= 3);
+    }
+
+    @Test
+    @DisplayName("The registry's own state probes should neither count nor fill the cache")
+    void testInternalProbesNotCounted() {
+        CachingTaskStore cache = new CachingTaskStore(new OffHeapTaskStore(), 100);
+        TaskRegistry registry = new TaskRegistry(cache);
+        TaskManager manager = new TaskManager(registry);
+        manager.enableHistory(8);
+        registry.peekNext();
+
+        manager.run(new AddTaskCommand(registry, new Task("Task", Priority.LOW)));
+        manager.run(new AddTaskCommand(registry, new Task("Task", Priority.HIGH)));
+        manager.run(new ChangeStatusCommand(registry, "Task", Status.IN_PROGRESS));
+        manager.run(new RemoveTaskCommand(registry, "Task"));
+        assertTrue(manager.undo());
+        assertEquals(new CacheStats(0, 0, 0, 0), cache.stats());
+        assertEquals(0, cache.cachedSize());
+
+        registry.get("Task");
+        manager.run(new ChangeStatusCommand(registry, "Task", Status.DONE));
+        assertEquals(1, cache.stats().misses(), "Only the caller's read should count");
+    }
+
+    @Test
+    @DisplayName("LRU should evict the least recently used task once full")
+    void testLruEviction() {
+        CachingTaskStore cache = new CachingTaskStore(new ConcurrentTaskStore(), 3);
+        for (int i = 0; i < 4; i++) {
+            cache.put(new Task("Task " + i, Priority.LOW));
+        }
+        cache.get("Task 0");
+        cache.get("Task 1");
+        cache.get("Task 2");
+        cache.get("Task 0");
+        cache.get("Task 3");
+        assertEquals(3, cache.cachedSize());
+        assertEquals(1, cache.stats().evictions());
+
+        long misses = cache.stats().misses();
+        cache.get("Task 0");
+        cache.get("Task 2");
+        cache.get("Task 3");
+        assertEquals(misses, cache.stats().misses(), "Recently used tasks should still be cached");
+        cache.get("Task 1");
+        assertEquals(misses + 1, cache.stats().misses(), "The least recently used task should be gone");
+    }
+
+    @Test
+    @DisplayName("TinyLFU should keep a hot working set through a scan that flushes LRU")
+    void testTinyLfuResistsScans() {
+        List<String> hot = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            hot.add("Hot " + i);
+        }
+        double[] hitRates = new double[2];
+        List<CachingTaskStore> caches = List.of(
+                new CachingTaskStore(new ConcurrentTaskStore(), 100, EvictionPolicy::lru),
+                new CachingTaskStore(new ConcurrentTaskStore(), 100, EvictionPolicy::tinyLfu));
+        for (int c = 0; c < caches.size(); c++) {
+            CachingTaskStore cache = caches.get(c);
+            hot.forEach(name -> cache.put(new Task(name, Priority.HIGH)));
+            for (int i = 0; i < 10_000; i++) {
+                cache.put(new Task("Cold " + i, Priority.LOW));
+            }
+            for (int round = 0; round < 5; round++) {
+                hot.forEach(cache::get);
+            }
+            for (int i = 0; i < 10_000; i++) {
+                cache.get("Cold " + i);
+            }
+            long hits = cache.stats().hits();
+            hot.forEach(cache::get);
+            hitRates[c] = (cache.stats().hits() - hits) / (double) hot.size();
+            assertTrue(cache.cachedSize() <= 100, "The cache should stay within its capacity");
+        }
+        assertEquals(0, hitRates[0], "The scan should flush every hot task from LRU");
+        assertTrue(hitRates[1] > 0.9, "TinyLFU should keep the hot tasks, kept " + hitRates[1]);
+    }
+
+    @Test
+    @DisplayName("A segmented cache should split its capacity exactly")
+    void testSegmentedCapacity() {
+        CachingTaskStore cache = new CachingTaskStore(new ConcurrentTaskStore(), 1030, EvictionPolicy::tinyLfu);
+        for (int i = 0; i < 5000; i++) {
+            cache.put(new Task("Task " + i, Priority.LOW));
+            cache.get("Task " + i);
+        }
+        assertTrue(cache.cachedSize() <= 1030);
+        assertEquals(5000, cache.size());
+        assertEquals(5000 - cache.cachedSize(), cache.stats().evictions());
+    }
+}
@@ -0,0 +1,140 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the registry change feed.
+ */
+class ChangeFeedTest {
+    private TaskRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TaskRegistry();
+    }
+
+    @Test
+    @DisplayName("Each kind of mutation should produce one event, in order")
+    void testEvents() {
+        registry.add(new Task("Existing", Priority.LOW));
+        ChangeFeed feed = registry.openChangeFeed(16);
+        ChangeFeed.Subscription subscription = feed.subscribe();
+
+        TaskManager manager = new TaskManager(registry);
+        manager.run(new AddTaskCommand(registry, new Task("Task", Priority.LOW)));
+        manager.run(new UpdateTaskCommand(registry, "Task", Priority.HIGH));
+        manager.run(new ChangeStatusCommand(registry, "Task", Status.DONE));
+        manager.run(new RemoveTaskCommand(registry, "Task"));
+
+        List<ChangeEvent> events = new ArrayList<>();
+        assertEquals(4, subscription.poll(events::add, 10));
+        assertEquals(List.of(
+                new ChangeEvent(0, ChangeEvent.Type.ADDED, new Task("Task", Priority.LOW), Status.TODO),
+                new ChangeEvent(1, ChangeEvent.Type.UPDATED, new Task("Task", Priority.HIGH), null),
+                new ChangeEvent(2, ChangeEvent.Type.STATUS_CHANGED, new Task("Task", Priority.HIGH), Status.DONE),
+                new ChangeEvent(3, ChangeEvent.Type.REMOVED, new Task("Task", Priority.HIGH), null)), events);
+        assertEquals(0, subscription.poll(events::add, 10), "Nothing should be pending");
+        assertEquals(0, subscription.missed());
+    }
+
+    @Test
+    @DisplayName("Subscribers should read independently and at their own pace")
+    void testIndependentSubscribers() {
+        ChangeFeed feed = registry.openChangeFeed(16);
+        ChangeFeed.Subscription early = feed.subscribe();
+        registry.add(new Task("Task 1", Priority.LOW));
+        ChangeFeed.Subscription late = feed.subscribe();
+        registry.add(new Task("Task 2", Priority.LOW));
+
+        List<ChangeEvent> events = new ArrayList<>();
+        assertEquals(1, early.poll(events::add, 1), "poll should respect its maximum");
+        assertEquals(1, early.lag());
+        assertEquals(1, early.poll(events::add, 10));
+        assertEquals(List.of("Task 1", "Task 2"), events.stream().map(e -> e.task().name()).toList());
+
+        events.clear();
+        assertEquals(1, late.poll(events::add, 10));
+        assertEquals(1, events.get(0).sequence());
+    }
+
+    @Test
+    @DisplayName("A subscriber lapped by writers should skip to the oldest event and count the rest")
+    void testOverrun() {
+        ChangeFeed feed = registry.openChangeFeed(3);
+        assertEquals(4, feed.capacity(), "Capacity should round up to a power of two");
+        ChangeFeed.Subscription subscription = feed.subscribe();
+        for (int i = 0; i < 10; i++) {
+            registry.add(new Task("Task " + i, Priority.LOW));
+        }
+
+        List<ChangeEvent> events = new ArrayList<>();
+        assertEquals(4, subscription.poll(events::add, 100));
+        assertEquals(6, subscription.missed());
+        assertEquals(List.of(6L, 7L, 8L, 9L), events.stream().map(ChangeEvent::sequence).toList());
+    }
+
+    @Test
+    @DisplayName("A closed feed should stop recording but keep what was published")
+    void testClose() {
+        ChangeFeed feed = registry.openChangeFeed(16);
+        ChangeFeed.Subscription subscription = feed.subscribe();
+        registry.add(new Task("Task 1", Priority.LOW));
+        feed.close();
+        registry.add(new Task("Task 2", Priority.LOW));
+
+        assertEquals(1, feed.sequence());
+        assertEquals(1, subscription.poll(event -> {}, 10));
+    }
+
+    @Test
+    @DisplayName("Concurrent writers should publish every change exactly once")
+    void testConcurrentWriters() throws Exception {
+        int threads = 4;
+        int perThread = 5_000;
+        ChangeFeed feed = registry.openChangeFeed(1 << 16);
+        ChangeFeed.Subscription subscription = feed.subscribe();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    registry.add(new Task("Task " + thread + "-" + i, Priority.MEDIUM));
+                }
+            }));
+        }
+
+        // Read while the writers run, so the reader meets slots still being filled in
+        List<ChangeEvent> events = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (events.size() < threads * perThread && System.nanoTime() < deadline) {
+            subscription.poll(events::add, 256);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(threads * perThread, events.size());
+        assertEquals(0, subscription.missed());
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i, events.get(i).sequence(), "Sequence numbers should have no gaps");
+            names.add(events.get(i).task().name());
+        }
+        assertEquals(threads * perThread, names.size());
+    }
+}
@@ -0,0 +1,131 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for checkpointing and recovery.
+ */
+class CheckpointerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Recovery should load the checkpoint and replay only the journal tail")
+    void testRecoverFromCheckpointAndTail() throws IOException {
+        Path journalPath = dir.resolve("tasks.journal");
+        Path checkpointPath = dir.resolve("tasks.checkpoint");
+        TaskRegistry registry = new TaskRegistry();
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskManager manager = new TaskManager(registry, journal);
+            for (int i = 0; i < 100; i++) {
+                manager.run(new AddTaskCommand(registry, new Task("Task " + i, Priority.values()[i % 3])));
+            }
+            long journalBefore = Files.size(journalPath);
+
+            Checkpointer checkpointer = new Checkpointer(registry, journal, checkpointPath);
+            assertEquals(100, checkpointer.checkpoint(), "Checkpoint should cover every record so far");
+            assertEquals(0, Files.size(journalPath), "Covered records should be truncated");
+            assertTrue(journalBefore > 0);
+
+            manager.run(new RemoveTaskCommand(registry, "Task 0"));
+            manager.run(new UpdateTaskCommand(registry, "Task 1", Priority.HIGH));
+        }
+
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskRegistry restored = Checkpointer.recover(checkpointPath, journal);
+            assertEquals(registry.getAll(), restored.getAll(), "Recovery should reproduce the final state");
+            assertEquals(102, journal.lastSequence(), "Sequence numbers should continue past the checkpoint");
+        }
+    }
+
+    @Test
+    @DisplayName("Sequence numbers should continue after the whole journal was checkpointed")
+    void testSequenceContinuesAfterFullTruncation() throws IOException {
+        Path journalPath = dir.resolve("tasks.journal");
+        Path checkpointPath = dir.resolve("tasks.checkpoint");
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskRegistry registry = new TaskRegistry();
+            TaskManager manager = new TaskManager(registry, journal);
+            manager.run(new AddTaskCommand(registry, new Task("Task 1", Priority.LOW)));
+            manager.run(new AddTaskCommand(registry, new Task("Task 2", Priority.LOW)));
+            new Checkpointer(registry, journal, checkpointPath).checkpoint();
+        }
+
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskRegistry restored = Checkpointer.recover(checkpointPath, journal);
+            TaskManager manager = new TaskManager(restored, journal);
+            manager.run(new RemoveTaskCommand(restored, "Task 1"));
+            assertEquals(3, journal.lastSequence());
+        }
+
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskRegistry restored = Checkpointer.recover(checkpointPath, journal);
+            assertTrue(restored.get("Task 1").isEmpty(), "Post-checkpoint remove should survive a restart");
+            assertTrue(restored.get("Task 2").isPresent());
+        }
+    }
+
+    @Test
+    @DisplayName("Recovery without a checkpoint should replay the whole journal")
+    void testRecoverWithoutCheckpoint() throws IOException {
+        Path journalPath = dir.resolve("tasks.journal");
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskRegistry registry = new TaskRegistry();
+            new TaskManager(registry, journal).run(new AddTaskCommand(registry, new Task("Task", Priority.HIGH)));
+        }
+
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskRegistry restored = Checkpointer.recover(dir.resolve("missing.checkpoint"), journal);
+            assertEquals(Priority.HIGH, restored.get("Task").get().priority());
+        }
+    }
+
+    @Test
+    @DisplayName("Scheduled checkpoints should run in the background")
+    void testSchedule() throws Exception {
+        Path checkpointPath = dir.resolve("tasks.checkpoint");
+        try (CommandJournal journal = CommandJournal.open(dir.resolve("tasks.journal"));
+             Checkpointer checkpointer = new Checkpointer(new TaskRegistry(), journal, checkpointPath)) {
+            checkpointer.schedule(Duration.ofMillis(10));
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!Files.exists(checkpointPath) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(Files.exists(checkpointPath), "A checkpoint should have been written");
+        }
+    }
+
+    @Test
+    @DisplayName("Statuses should survive a checkpoint and a journal replay")
+    void testRecoverStatus() throws IOException {
+        Path journalPath = dir.resolve("tasks.journal");
+        Path checkpointPath = dir.resolve("tasks.checkpoint");
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskRegistry registry = new TaskRegistry();
+            TaskManager manager = new TaskManager(registry, journal);
+            manager.run(new AddTaskCommand(registry, new Task("Task 1", Priority.LOW)));
+            manager.run(new AddTaskCommand(registry, new Task("Task 2", Priority.LOW)));
+            manager.run(new ChangeStatusCommand(registry, "Task 1", Status.DONE));
+            new Checkpointer(registry, journal, checkpointPath).checkpoint();
+            manager.run(new ChangeStatusCommand(registry, "Task 2", Status.IN_PROGRESS));
+        }
+
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskRegistry restored = Checkpointer.recover(checkpointPath, journal);
+            assertEquals(Optional.of(Status.DONE), restored.getStatus("Task 1"));
+            assertEquals(Optional.of(Status.IN_PROGRESS), restored.getStatus("Task 2"));
+            assertEquals(1, restored.countByStatus(Status.DONE));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for batch command coalescing.
+ */
+class CommandCoalescerTest {
+    private TaskRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TaskRegistry();
+    }
+
+    @Test
+    @DisplayName("A burst of updates to one task should collapse to the last one")
+    void testUpdatesCollapse() {
+        UpdateTaskCommand last = new UpdateTaskCommand(registry, "Task", Priority.HIGH);
+        CommandCoalescer.Batch batch = CommandCoalescer.coalesce(List.of(
+                new UpdateTaskCommand(registry, "Task", Priority.LOW),
+                new UpdateTaskCommand(registry, "Other", Priority.LOW),
+                new UpdateTaskCommand(registry, "Task", Priority.MEDIUM),
+                last), registry);
+
+        assertEquals(2, batch.commands().size());
+        assertSame(last, batch.commands().get(1));
+        assertArrayEquals(new int[] {1, 0, 1, 1}, batch.carrierOf());
+    }
+
+    @Test
+    @DisplayName("An add followed by updates should become one add with the final priority")
+    void testAddAbsorbsUpdates() {
+        CommandCoalescer.Batch batch = CommandCoalescer.coalesce(List.of(
+                new AddTaskCommand(registry, new Task("Task", Priority.LOW)),
+                new UpdateTaskCommand(registry, "Task", Priority.HIGH)), registry);
+
+        assertEquals(1, batch.commands().size());
+        AddTaskCommand add = assertInstanceOf(AddTaskCommand.class, batch.commands().get(0));
+        assertEquals(new Task("Task", Priority.HIGH), add.task());
+    }
+
+    @Test
+    @DisplayName("An add then a remove should leave just the remove")
+    void testAddThenRemove() {
+        RemoveTaskCommand remove = new RemoveTaskCommand(registry, "Task");
+        CommandCoalescer.Batch batch = CommandCoalescer.coalesce(List.of(
+                new AddTaskCommand(registry, new Task("Task", Priority.LOW)),
+                new UpdateTaskCommand(registry, "Task", Priority.HIGH),
+                remove,
+                new UpdateTaskCommand(registry, "Task", Priority.MEDIUM)), registry);
+
+        assertEquals(List.of(remove), batch.commands());
+    }
+
+    @Test
+    @DisplayName("A remove then an add, and status changes between other commands, should be kept")
+    void testBarriers() {
+        List<Command> commands = List.of(
+                new RemoveTaskCommand(registry, "Task"),
+                new AddTaskCommand(registry, new Task("Task", Priority.LOW)),
+                new ChangeStatusCommand(registry, "Task", Status.DONE),
+                new UpdateTaskCommand(registry, "Task", Priority.HIGH));
+
+        assertEquals(commands, CommandCoalescer.coalesce(commands, registry).commands());
+    }
+
+    @Test
+    @DisplayName("Coalesced batches should reach the same state as running every command")
+    void testRandomBatchesMatchUncoalesced() {
+        Random random = new Random(16);
+        for (int round = 0; round < 200; round++) {
+            TaskRegistry plain = new TaskRegistry();
+            TaskRegistry coalesced = new TaskRegistry();
+            for (int i = 0; i < 4; i++) {
+                if (random.nextBoolean()) {
+                    Task task = new Task("Task " + i, Priority.values()[random.nextInt(3)]);
+                    Status status = Status.values()[random.nextInt(3)];
+                    plain.restore(task, status);
+                    coalesced.restore(task, status);
+                }
+            }
+            long seed = random.nextLong();
+            List<CommandResult> expected = new TaskManager(plain).runAll(randomBatch(plain, new Random(seed)));
+            List<CommandResult> actual = new TaskManager(coalesced).runCoalesced(randomBatch(coalesced, new Random(seed)));
+
+            assertEquals(plain.getAll(), coalesced.getAll());
+            for (String name : plain.getAll().keySet()) {
+                assertEquals(plain.getStatus(name), coalesced.getStatus(name));
+            }
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).succeeded(), actual.get(i).succeeded(), "Result of command " + i);
+            }
+        }
+    }
+
+    private static List<Command> randomBatch(TaskRegistry registry, Random random) {
+        List<Command> batch = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String name = "Task " + random.nextInt(4);
+            Priority priority = Priority.values()[random.nextInt(3)];
+            batch.add(switch (random.nextInt(4)) {
+                case 0 -> new AddTaskCommand(registry, new Task(name, priority));
+                case 1 -> new RemoveTaskCommand(registry, name);
+                case 2 -> new UpdateTaskCommand(registry, name, priority);
+                default -> new ChangeStatusCommand(registry, name, Status.values()[random.nextInt(3)]);
+            });
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,186 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for undo/redo history.
+ */
+class CommandHistoryTest {
+    private TaskRegistry registry;
+    private TaskManager manager;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TaskRegistry();
+        manager = new TaskManager(registry);
+        manager.enableHistory(8);
+    }
+
+    @Test
+    @DisplayName("Undo should revert an update to the previous priority and redo should reapply it")
+    void testUndoUpdate() {
+        manager.run(new AddTaskCommand(registry, new Task("Task", Priority.LOW)));
+        manager.run(new UpdateTaskCommand(registry, "Task", Priority.HIGH));
+
+        assertTrue(manager.undo());
+        assertEquals(Priority.LOW, registry.get("Task").get().priority());
+        assertTrue(manager.redo());
+        assertEquals(Priority.HIGH, registry.get("Task").get().priority());
+        assertFalse(manager.redo(), "Nothing further should be redoable");
+    }
+
+    @Test
+    @DisplayName("Undoing a remove should restore the task with its priority and status")
+    void testUndoRemove() {
+        manager.run(new AddTaskCommand(registry, new Task("Task", Priority.MEDIUM)));
+        manager.run(new ChangeStatusCommand(registry, "Task", Status.IN_PROGRESS));
+        manager.run(new RemoveTaskCommand(registry, "Task"));
+
+        assertTrue(manager.undo());
+        assertEquals(Optional.of(new Task("Task", Priority.MEDIUM)), registry.get("Task"));
+        assertEquals(Optional.of(Status.IN_PROGRESS), registry.getStatus("Task"));
+
+        assertTrue(manager.undo());
+        assertEquals(Optional.of(Status.TODO), registry.getStatus("Task"));
+        assertTrue(manager.undo());
+        assertTrue(registry.get("Task").isEmpty(), "Undoing the add should remove the task");
+        assertFalse(manager.undo());
+    }
+
+    @Test
+    @DisplayName("Commands that change nothing or fail should not be recorded")
+    void testNoOpsNotRecorded() {
+        manager.run(new RemoveTaskCommand(registry, "Missing"));
+        manager.run(new UpdateTaskCommand(registry, "Missing", Priority.HIGH));
+        assertThrows(TaskNotFoundException.class,
+                () -> manager.run(new ChangeStatusCommand(registry, "Missing", Status.DONE)));
+
+        assertFalse(manager.undo());
+    }
+
+    @Test
+    @DisplayName("A new command should clear redo, and the history should keep only its depth")
+    void testRedoClearedAndDepthBounded() {
+        manager.run(new AddTaskCommand(registry, new Task("Task", Priority.LOW)));
+        manager.run(new UpdateTaskCommand(registry, "Task", Priority.HIGH));
+        manager.undo();
+        manager.run(new UpdateTaskCommand(registry, "Task", Priority.MEDIUM));
+        assertFalse(manager.redo(), "A new command should discard the undone step");
+
+        for (int i = 0; i < 20; i++) {
+            manager.run(new AddTaskCommand(registry, new Task("Task " + i, Priority.LOW)));
+        }
+        int undone = 0;
+        while (manager.undo()) {
+            undone++;
+        }
+        assertEquals(8, undone);
+        assertEquals(13, registry.getAll().size(), "Only the last eight adds should have been undone");
+    }
+
+    @Test
+    @DisplayName("Batched commands should be recorded and undone one at a time")
+    void testRunAllRecorded() {
+        manager.runAll(List.of(
+                new AddTaskCommand(registry, new Task("Task 1", Priority.LOW)),
+                new AddTaskCommand(registry, new Task("Task 2", Priority.LOW))));
+
+        assertTrue(manager.undo());
+        assertEquals(1, registry.getAll().size());
+        assertTrue(manager.undo());
+        assertEquals(Map.of(), registry.getAll());
+    }
+
+    @Test
+    @DisplayName("Undo should be journaled so recovery reproduces it")
+    void testUndoJournaled(@TempDir Path dir) throws IOException {
+        Path journalPath = dir.resolve("tasks.journal");
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskManager journaled = new TaskManager(registry, journal);
+            journaled.enableHistory(4);
+            journaled.run(new AddTaskCommand(registry, new Task("Task", Priority.LOW)));
+            journaled.run(new ChangeStatusCommand(registry, "Task", Status.DONE));
+            journaled.run(new RemoveTaskCommand(registry, "Task"));
+            journaled.undo();
+        }
+
+        try (CommandJournal journal = CommandJournal.open(journalPath)) {
+            TaskRegistry restored = new TaskRegistry();
+            journal.replay(restored);
+            assertEquals(registry.getAll(), restored.getAll());
+            assertEquals(Optional.of(Status.DONE), restored.getStatus("Task"));
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent writers should record without losing the last depth steps")
+    void testConcurrentRecording() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        manager.run(new AddTaskCommand(registry, new Task("Task " + thread + "-" + i, Priority.LOW)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int undone = 0;
+        while (manager.undo()) {
+            undone++;
+        }
+        assertEquals(8, undone);
+        assertEquals(1_992, registry.getAll().size(), "Each undo should remove one recorded add");
+        for (int i = 0; i < 8; i++) {
+            assertTrue(manager.redo());
+        }
+        assertFalse(manager.redo());
+        assertEquals(2_000, registry.getAll().size());
+    }
+
+    @Test
+    @DisplayName("undo without history should be rejected")
+    void testHistoryRequired() {
+        assertThrows(IllegalStateException.class, () -> new TaskManager(registry).undo());
+    }
+
+    @Test
+    @DisplayName("Every store should report a task's packed state in one lookup")
+    void testStoreState() {
+        List<TaskStore> stores = List.of(new ConcurrentTaskStore(), new OpenAddressingTaskStore(),
+                new OffHeapTaskStore(), new VersionedTaskStore(), new CachingTaskStore(new OffHeapTaskStore(), 4));
+        for (TaskStore store : stores) {
+            String kind = store.getClass().getSimpleName();
+            assertEquals(-1, store.getState("Task"), kind);
+            store.put(new Task("Task", Priority.HIGH));
+            store.setStatus("Task", Status.IN_PROGRESS);
+            assertEquals(Status.IN_PROGRESS.ordinal() << 2 | Priority.HIGH.ordinal(), store.getState("Task"), kind);
+            store.remove("Task");
+            assertEquals(-1, store.getState("Task"), kind);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the write-ahead command journal.
+ */
+class CommandJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Replaying the journal should rebuild the registry")
+    void testReplay() throws IOException {
+        Path path = dir.resolve("tasks.journal");
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            TaskRegistry registry = new TaskRegistry();
+            TaskManager manager = new TaskManager(registry, journal);
+            manager.run(new AddTaskCommand(registry, new Task("Task 1", Priority.HIGH)));
+            manager.run(new AddTaskCommand(registry, new Task("Task 2", Priority.LOW)));
+            manager.run(new UpdateTaskCommand(registry, "Task 2", Priority.MEDIUM));
+            manager.run(new RemoveTaskCommand(registry, "Task 1"));
+            assertEquals(4, journal.lastSequence());
+        }
+
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            TaskRegistry restored = new TaskRegistry();
+            assertEquals(4, journal.replay(restored), "Every command should be replayed");
+            assertEquals(4, journal.lastSequence(), "Sequence numbers should continue after reopening");
+            assertTrue(restored.get("Task 1").isEmpty());
+            assertEquals(Priority.MEDIUM, restored.get("Task 2").get().priority());
+        }
+    }
+
+    @Test
+    @DisplayName("Failed commands should not be journaled")
+    void testFailedCommandNotJournaled() throws IOException {
+        try (CommandJournal journal = CommandJournal.open(dir.resolve("tasks.journal"))) {
+            TaskRegistry registry = new TaskRegistry();
+            TaskManager manager = new TaskManager(registry, journal);
+
+            List<CommandResult> results = manager.runAll(List.of(
+                    new RemoveTaskCommand(null, "Task"),
+                    new AddTaskCommand(registry, new Task("Task", Priority.LOW))));
+
+            assertFalse(results.get(0).succeeded());
+            assertEquals(1, journal.lastSequence(), "Only the successful command should be recorded");
+        }
+    }
+
+    @Test
+    @DisplayName("A torn record at the end of the journal should be discarded on open")
+    void testTornTail() throws IOException {
+        Path path = dir.resolve("tasks.journal");
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            TaskRegistry registry = new TaskRegistry();
+            TaskManager manager = new TaskManager(registry, journal);
+            manager.run(new AddTaskCommand(registry, new Task("Task 1", Priority.HIGH)));
+            manager.run(new AddTaskCommand(registry, new Task("Task 2", Priority.HIGH)));
+        }
+        long intact = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(intact - 3);
+        }
+
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            TaskRegistry restored = new TaskRegistry();
+            assertEquals(1, journal.replay(restored));
+            assertTrue(restored.get("Task 2").isEmpty(), "Torn record should not be applied");
+            assertEquals(1, journal.lastSequence());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent writers should all be durable and replayable")
+    void testConcurrentGroupCommit() throws Exception {
+        Path path = dir.resolve("tasks.journal");
+        int threads = 8;
+        int perThread = 200;
+        TaskRegistry registry = new TaskRegistry();
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            TaskManager manager = new TaskManager(registry, journal);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int id = t;
+                    futures.add(pool.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            String name = "T" + id + "-" + (i % 20);
+                            manager.run(new AddTaskCommand(registry, new Task(name, Priority.values()[i % 3])));
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            assertEquals(threads * perThread, journal.lastSequence());
+        }
+
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            TaskRegistry restored = new TaskRegistry();
+            journal.replay(restored);
+            assertEquals(registry.getAll(), restored.getAll(), "Replay should reproduce the final state");
+        }
+    }
+
+    @Test
+    @DisplayName("Tail reads should follow the journal across truncation and stop at dropped records")
+    void testTailAcrossTruncation() throws IOException {
+        Path path = dir.resolve("tasks.journal");
+        TaskRegistry registry = new TaskRegistry();
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            TaskManager manager = new TaskManager(registry, journal);
+            for (int i = 0; i < 10; i++) {
+                manager.run(new AddTaskCommand(registry, new Task("Task " + i, Priority.LOW)));
+            }
+            assertEquals(0, journal.tailStart(0));
+            long afterFive = journal.tailStart(5);
+            assertTrue(afterFive > 0);
+            assertEquals(-1, journal.tailStart(11), "Unwritten records have no tail");
+
+            journal.truncateThrough(5);
+            assertEquals(-1, journal.tailStart(4), "Dropped records have no tail");
+            assertEquals(afterFive, journal.tailStart(5), "Positions should survive truncation");
+            assertEquals(-1, journal.readTail(0, ByteBuffer.allocate(64)));
+
+            ByteBuffer tail = ByteBuffer.allocate(4096);
+            int read = journal.readTail(afterFive, tail);
+            assertEquals(read, Files.size(path), "The tail should be everything kept");
+            tail.flip();
+            assertEquals(6, CommandCodec.sequence(tail.position(CommandCodec.HEADER_BYTES)));
+            assertEquals(0, journal.readTail(afterFive + read, ByteBuffer.allocate(64)), "Nothing past the end");
+        }
+    }
+}
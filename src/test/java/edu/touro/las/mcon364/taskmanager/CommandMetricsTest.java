@@ -0,0 +1,74 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the per-command metrics recorded by TaskManager.
+ */
+class CommandMetricsTest {
+    private TaskRegistry registry;
+    private TaskManager manager;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TaskRegistry();
+        manager = new TaskManager(registry);
+    }
+
+    @Test
+    @DisplayName("Each command type should be counted separately")
+    void testExecutionCounts() {
+        manager.run(new AddTaskCommand(registry, new Task("Task 1", Priority.LOW)));
+        manager.run(new AddTaskCommand(registry, new Task("Task 2", Priority.LOW)));
+        manager.run(new UpdateTaskCommand(registry, "Task 1", Priority.HIGH));
+        manager.run(new ChangeStatusCommand(registry, "Task 1", Status.DONE));
+        manager.runAll(List.of(new RemoveTaskCommand(registry, "Task 2")));
+
+        CommandMetrics metrics = manager.metrics();
+        assertEquals(5, metrics.getExecutions());
+        assertEquals(0, metrics.getFailures());
+        assertEquals(Map.of("AddTaskCommand", 2L, "RemoveTaskCommand", 1L, "UpdateTaskCommand", 1L,
+                        "ChangeStatusCommand", 1L),
+                metrics.getExecutionsByCommand());
+        assertEquals(2, metrics.latency(AddTaskCommand.class).count());
+    }
+
+    @Test
+    @DisplayName("Failures should be counted and still rethrown by run")
+    void testFailures() {
+        Command broken = new RemoveTaskCommand(null, "Task");
+
+        assertThrows(NullPointerException.class, () -> manager.run(broken));
+
+        CommandStats stats = manager.metrics().stats().get(1);
+        assertEquals("RemoveTaskCommand", stats.command());
+        assertEquals(1, stats.executions());
+        assertEquals(1, stats.failures());
+        assertEquals(0, stats.taskNotFound());
+    }
+
+    @Test
+    @DisplayName("Metrics should be readable through JMX")
+    void testJmx() throws Exception {
+        manager.run(new AddTaskCommand(registry, new Task("Task", Priority.LOW)));
+        ObjectName name = manager.metrics().registerMBean("CommandMetricsTest");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "Executions"));
+            assertEquals(0L, server.getAttribute(name, "Failures"));
+        } finally {
+            manager.metrics().unregisterMBean(name);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
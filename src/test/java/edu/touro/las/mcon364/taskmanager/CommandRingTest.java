@@ -0,0 +1,135 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the low-allocation command path.
+ */
+class CommandRingTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Flushed commands should leave the registry as the equivalent commands would")
+    void testFlush() {
+        TaskRegistry registry = new TaskRegistry();
+        TaskManager manager = new TaskManager(registry);
+        CommandRing ring = manager.commandRing(16);
+        int a = ring.nameId("A");
+        int b = ring.nameId("B");
+        assertEquals(a, ring.nameId("A"), "Interning should be idempotent");
+        assertEquals("B", ring.name(b));
+
+        ring.add(a, Priority.LOW);
+        ring.add(b, Priority.MEDIUM);
+        ring.update(a, Priority.HIGH);
+        ring.changeStatus(b, Status.DONE);
+        ring.remove(b);
+        assertEquals(5, ring.pending());
+        assertEquals(Optional.empty(), registry.get("A"), "Nothing should be applied before a flush");
+
+        assertEquals(0, ring.flush());
+        assertEquals(0, ring.pending());
+        assertEquals(Optional.of(new Task("A", Priority.HIGH)), registry.get("A"));
+        assertEquals(Optional.empty(), registry.get("B"));
+        assertEquals(5, manager.metrics().getExecutions());
+    }
+
+    @Test
+    @DisplayName("Failing commands should be counted without stopping the rest")
+    void testFailures() {
+        TaskRegistry registry = new TaskRegistry();
+        TaskManager manager = new TaskManager(registry);
+        CommandRing ring = manager.commandRing(4);
+        int missing = ring.nameId("Missing");
+        int present = ring.nameId("Present");
+
+        ring.update(missing, Priority.HIGH);
+        ring.changeStatus(missing, Status.DONE);
+        ring.add(present, Priority.LOW);
+        assertEquals(1, ring.flush(), "Only the status change should fail; updating a missing task does nothing");
+        assertEquals(1, manager.metrics().getTaskNotFound());
+        assertEquals(Optional.empty(), registry.get("Missing"));
+        assertTrue(registry.get("Present").isPresent());
+        assertEquals(0, ring.flush(), "Failures should be reported once");
+        assertThrows(IllegalArgumentException.class, () -> ring.remove(99));
+    }
+
+    @Test
+    @DisplayName("A full ring should flush itself and keep per-task order")
+    void testWrapAround() {
+        TaskRegistry registry = new TaskRegistry();
+        CommandRing ring = new TaskManager(registry).commandRing(8);
+        int[] ids = new int[10];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ring.nameId("Task " + i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < ids.length; i++) {
+                ring.add(ids[i], Priority.values()[(round + i) % 3]);
+            }
+        }
+        ring.remove(ids[0]);
+        ring.update(ids[0], Priority.HIGH);
+        assertTrue(ring.pending() < 8);
+        assertEquals(0, ring.flush(), "The update after the remove should do nothing");
+        assertEquals(9, registry.getAll().size());
+        for (int i = 1; i < ids.length; i++) {
+            assertEquals(Priority.values()[(4 + i) % 3], registry.get("Task " + i).orElseThrow().priority());
+        }
+    }
+
+    @Test
+    @DisplayName("Ring commands should be journaled and undoable like any others")
+    void testJournalAndHistory() throws IOException {
+        Path path = dir.resolve("tasks.journal");
+        TaskRegistry registry = new TaskRegistry();
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            TaskManager manager = new TaskManager(registry, journal);
+            manager.enableHistory(8);
+            CommandRing ring = manager.commandRing(8);
+            int id = ring.nameId("Report");
+            ring.add(id, Priority.LOW);
+            ring.changeStatus(id, Status.IN_PROGRESS);
+            ring.update(id, Priority.HIGH);
+            ring.flush();
+
+            assertTrue(manager.undo());
+            assertEquals(Priority.LOW, registry.get("Report").orElseThrow().priority());
+            assertEquals(Optional.of(Status.IN_PROGRESS), registry.getStatus("Report"));
+        }
+
+        TaskRegistry restored = new TaskRegistry();
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            // Three ring commands, then the add and status change that undo the update
+            assertEquals(5, journal.replay(restored));
+        }
+        assertEquals(registry.getAll(), restored.getAll());
+        assertEquals(registry.getStatus("Report"), restored.getStatus("Report"));
+    }
+
+    @Test
+    @DisplayName("Commands dropped by a failing flush should be counted as failed")
+    void testFlushThrows() throws IOException {
+        TaskRegistry registry = new TaskRegistry();
+        CommandJournal journal = CommandJournal.open(dir.resolve("closed.journal"));
+        CommandRing ring = new TaskManager(registry, journal).commandRing(8);
+        for (int i = 0; i < 3; i++) {
+            ring.add(ring.nameId("Task " + i), Priority.LOW);
+        }
+        journal.close();
+
+        assertThrows(UncheckedIOException.class, ring::flush);
+        assertEquals(0, ring.pending());
+        assertEquals(3, ring.flush(), "Every dropped command should be reported");
+    }
+}
@@ -125,5 +125,24 @@ class CommandTest {
         assertEquals(Priority.HIGH, registry.get("Urgent").get().priority(),
                 "Should allow increasing priority");
     }
-}
 
+    @Test
+    @DisplayName("ChangeStatusCommand should move the task to the new status")
+    void testChangeStatusCommand() {
+        registry.add(new Task("Task", Priority.MEDIUM));
+
+        new ChangeStatusCommand(registry, "Task", Status.IN_PROGRESS).execute();
+
+        assertEquals(Optional.of(Status.IN_PROGRESS), registry.getStatus("Task"));
+        assertEquals(Priority.MEDIUM, registry.get("Task").get().priority(), "Priority should be unchanged");
+    }
+
+    @Test
+    @DisplayName("ChangeStatusCommand on non-existent task should throw")
+    void testChangeStatusCommandNonExistent() {
+        Command command = new ChangeStatusCommand(registry, "Missing", Status.DONE);
+
+        assertThrows(TaskNotFoundException.class, command::execute);
+        assertTrue(registry.get("Missing").isEmpty(), "Should not create a task");
+    }
+}
@@ -0,0 +1,72 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the log-linear latency histogram.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Empty histogram should report zero")
+    void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.valueAtPercentile(99));
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    @DisplayName("Small values should be recorded exactly")
+    void testSmallValuesExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(10, histogram.count());
+        assertEquals(5, histogram.valueAtPercentile(50));
+        assertEquals(10, histogram.max());
+    }
+
+    @Test
+    @DisplayName("Percentiles should stay within the bucket precision")
+    void testPercentilePrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 100);
+        }
+
+        assertEquals(5_000_000, histogram.valueAtPercentile(50), 5_000_000 * 0.07);
+        assertEquals(9_900_000, histogram.valueAtPercentile(99), 9_900_000 * 0.07);
+        assertEquals(10_000_000, histogram.max(), 10_000_000 * 0.07);
+    }
+
+    @Test
+    @DisplayName("Bucket boundaries should be contiguous over the whole long range")
+    void testBucketsContiguous() {
+        for (long value : new long[] {0, 15, 16, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(LatencyHistogram.highestValue(bucket) >= value, "Bucket should contain " + value);
+            if (bucket > 0) {
+                assertTrue(LatencyHistogram.highestValue(bucket - 1) < value,
+                        "Previous bucket should end below " + value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("reset should clear every bucket")
+    void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+    }
+}
@@ -0,0 +1,69 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the name-to-ID dictionary.
+ */
+class NameDictionaryTest {
+
+    @Test
+    @DisplayName("Interning the same name twice should return the same ID")
+    void testInternIsStable() {
+        NameDictionary dictionary = new NameDictionary();
+
+        int id = dictionary.intern("Task");
+
+        assertEquals(id, dictionary.intern("Task"));
+        assertEquals(id, dictionary.idOf("Task"));
+        assertEquals("Task", dictionary.name(id));
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    @DisplayName("Released IDs should be reused")
+    void testReleaseReusesId() {
+        NameDictionary dictionary = new NameDictionary();
+        int first = dictionary.intern("Task 1");
+        dictionary.intern("Task 2");
+
+        assertEquals(first, dictionary.release("Task 1"));
+        assertEquals(-1, dictionary.idOf("Task 1"));
+        assertNull(dictionary.name(first));
+        assertEquals(first, dictionary.intern("Task 3"), "Freed ID should be handed out again");
+        assertEquals(-1, dictionary.release("Missing"));
+    }
+
+    @Test
+    @DisplayName("Random interns and releases should match a HashMap model")
+    void testAgainstModel() {
+        NameDictionary dictionary = new NameDictionary();
+        Map<String, Integer> model = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            String name = "name-" + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                int id = dictionary.intern(name);
+                Integer expected = model.putIfAbsent(name, id);
+                if (expected != null) {
+                    assertEquals(expected, id);
+                }
+            } else {
+                Integer expected = model.remove(name);
+                assertEquals(expected == null ? -1 : expected, dictionary.release(name));
+            }
+        }
+
+        assertEquals(model.size(), dictionary.size());
+        model.forEach((name, id) -> assertEquals(id, dictionary.idOf(name)));
+        assertTrue(dictionary.idLimit() <= 2_000, "IDs should stay dense");
+    }
+}
@@ -0,0 +1,94 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for prefix and substring search over task names.
+ */
+class NameSearchIndexTest {
+    private TaskRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TaskRegistry();
+        registry.add(new Task("Fix critical bug", Priority.HIGH));
+        registry.add(new Task("Fix typo", Priority.LOW));
+        registry.add(new Task("Write documentation", Priority.HIGH));
+        registry.add(new Task("Refactor code", Priority.MEDIUM));
+    }
+
+    @Test
+    @DisplayName("Prefix search should return matching tasks in name order, ignoring case")
+    void testPrefix() {
+        assertEquals(List.of(new Task("Fix critical bug", Priority.HIGH), new Task("Fix typo", Priority.LOW)),
+                registry.findByPrefix("fix", 10));
+        assertEquals(List.of(new Task("Fix critical bug", Priority.HIGH)), registry.findByPrefix("FIX", 1));
+        assertTrue(registry.findByPrefix("Deploy", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Substring search should match anywhere in the name")
+    void testSubstring() {
+        assertEquals(Set.of("Fix critical bug", "Write documentation"), names(registry.findBySubstring("ti", 10)));
+        assertEquals(Set.of("Refactor code"), names(registry.findBySubstring("ACTOR C", 10)));
+        assertEquals(Set.of("Fix typo", "Fix critical bug"), names(registry.findBySubstring("x", 10)));
+        assertTrue(registry.findBySubstring("bug fix", 10).isEmpty());
+        assertEquals(1, registry.findBySubstring("i", 1).size(), "Limit should cap the result");
+    }
+
+    @Test
+    @DisplayName("Index should follow adds, removes and updates after it is built")
+    void testMaintained() {
+        assertEquals(2, registry.findByPrefix("Fix", 10).size());
+
+        registry.add(new Task("Fixture cleanup", Priority.LOW));
+        registry.remove("Fix typo");
+        new UpdateTaskCommand(registry, "Fix critical bug", Priority.LOW).execute();
+
+        assertEquals(List.of(new Task("Fix critical bug", Priority.LOW), new Task("Fixture cleanup", Priority.LOW)),
+                registry.findByPrefix("fix", 10));
+        assertTrue(registry.findBySubstring("typo", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Names differing only by case should both be found")
+    void testCaseVariants() {
+        registry.add(new Task("fix typo", Priority.HIGH));
+
+        assertEquals(Set.of("Fix typo", "fix typo"), names(registry.findByPrefix("FIX TYPO", 10)));
+
+        registry.remove("Fix typo");
+        assertEquals(Set.of("fix typo"), names(registry.findBySubstring("typo", 10)));
+    }
+
+    @Test
+    @DisplayName("Paged prefix walks should resume after the last name and see later writes")
+    void testPagedPrefix() {
+        NameSearchIndex index = new NameSearchIndex();
+        for (String name : List.of("ab", "Abc", "abc", "abd", "abd x", "b")) {
+            index.add(name);
+        }
+
+        assertEquals(5, index.countPrefix("AB"));
+        assertEquals(List.of("ab", "Abc"), index.prefix("ab", null, 2));
+        assertEquals(List.of("abc", "abd"), index.prefix("ab", "Abc", 2));
+
+        index.remove("abd");
+        index.add("abe");
+        assertEquals(List.of("abd x", "abe"), index.prefix("ab", "abd", 10),
+                "A removed resume point should not lose the names after it");
+        assertEquals(List.of(), index.prefix("ab", "abe", 10));
+    }
+
+    private static Set<String> names(List<Task> tasks) {
+        return tasks.stream().map(Task::name).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,148 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the off-heap task store.
+ */
+class OffHeapTaskStoreTest {
+
+    @Test
+    @DisplayName("put, get and remove should follow the TaskStore contract")
+    void testContract() {
+        OffHeapTaskStore store = new OffHeapTaskStore();
+
+        assertNull(store.put(new Task("Task", Priority.LOW)));
+        assertEquals(new Task("Task", Priority.LOW), store.put(new Task("Task", Priority.HIGH)));
+        assertEquals(new Task("Task", Priority.HIGH), store.get("Task"));
+        assertEquals(1, store.size());
+
+        assertEquals(new Task("Task", Priority.HIGH), store.remove("Task"));
+        assertNull(store.get("Task"));
+        assertNull(store.remove("Task"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Status should start at TODO, survive priority changes and go with the task")
+    void testStatus() {
+        OffHeapTaskStore store = new OffHeapTaskStore();
+
+        assertNull(store.getStatus("Task"));
+        assertNull(store.setStatus("Task", Status.DONE), "Missing task should report no previous status");
+        store.put(new Task("Task", Priority.LOW));
+        assertEquals(Status.TODO, store.getStatus("Task"));
+        assertEquals(Status.TODO, store.setStatus("Task", Status.IN_PROGRESS));
+        store.put(new Task("Task", Priority.HIGH));
+        assertEquals(Status.IN_PROGRESS, store.getStatus("Task"), "Replacing a task should keep its status");
+
+        Map<Task, Status> entries = new HashMap<>();
+        store.forEachEntry(entries::put);
+        assertEquals(Map.of(new Task("Task", Priority.HIGH), Status.IN_PROGRESS), entries);
+
+        store.remove("Task");
+        store.put(new Task("Task", Priority.HIGH));
+        assertEquals(Status.TODO, store.getStatus("Task"), "A re-added task should start over");
+    }
+
+    @Test
+    @DisplayName("Non-ASCII names should round-trip")
+    void testUnicodeNames() {
+        OffHeapTaskStore store = new OffHeapTaskStore();
+
+        store.put(new Task("Überprüfen ✓", Priority.MEDIUM));
+
+        assertEquals(new Task("Überprüfen ✓", Priority.MEDIUM), store.get("Überprüfen ✓"));
+        List<Task> all = new ArrayList<>();
+        store.forEach(all::add);
+        assertEquals(List.of(new Task("Überprüfen ✓", Priority.MEDIUM)), all);
+    }
+
+    @Test
+    @DisplayName("Random operations across growth and compaction should match a HashMap model")
+    void testAgainstModel() {
+        OffHeapTaskStore store = new OffHeapTaskStore(16, 256);
+        Map<String, Task> model = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 100_000; i++) {
+            String name = "task-" + random.nextInt(5_000);
+            if (random.nextInt(3) > 0) {
+                Task task = new Task(name, Priority.values()[random.nextInt(3)]);
+                assertEquals(model.put(name, task), store.put(task));
+            } else {
+                assertEquals(model.remove(name), store.remove(name));
+            }
+        }
+
+        assertEquals(model.size(), store.size());
+        model.forEach((name, task) -> assertEquals(task, store.get(name)));
+        Map<String, Task> all = new HashMap<>();
+        store.forEach(task -> all.put(task.name(), task));
+        assertEquals(model, all);
+        assertTrue(store.offHeapBytes() < 1 << 20, "Compaction should keep slab usage bounded");
+    }
+
+    @Test
+    @DisplayName("Registry backed by the store should run commands unchanged")
+    void testBehindRegistry() {
+        TaskRegistry registry = new TaskRegistry(new OffHeapTaskStore());
+        TaskManager manager = new TaskManager(registry);
+
+        manager.run(new AddTaskCommand(registry, new Task("Task 1", Priority.LOW)));
+        manager.run(new AddTaskCommand(registry, new Task("Task 2", Priority.LOW)));
+        manager.run(new UpdateTaskCommand(registry, "Task 1", Priority.HIGH));
+        manager.run(new RemoveTaskCommand(registry, "Task 2"));
+
+        assertEquals(Map.of("Task 1", new Task("Task 1", Priority.HIGH)), registry.getAll());
+        assertEquals(1, registry.countByPriority(Priority.HIGH));
+    }
+
+    @Test
+    @DisplayName("Readers racing writers should only ever see stored tasks")
+    void testConcurrentReadsAndWrites() throws Exception {
+        OffHeapTaskStore store = new OffHeapTaskStore(16, 4096);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                int id = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        String name = "W" + id + "-" + (i % 1_000);
+                        store.put(new Task(name, Priority.MEDIUM));
+                        if (i % 3 == 0) {
+                            store.remove(name);
+                        }
+                    }
+                }));
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        Task task = store.get("W" + id + "-" + (i % 1_000));
+                        if (task != null) {
+                            assertEquals(Priority.MEDIUM, task.priority());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primary/follower replication.
+ */
+class ReplicationPrimaryTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path dir;
+
+    private static Map<Task, Status> entries(TaskRegistry registry) {
+        Map<Task, Status> entries = new HashMap<>();
+        registry.forEachEntry(entries::put);
+        return entries;
+    }
+
+    private static void runSome(TaskManager manager, TaskRegistry registry, int from, int to) {
+        for (int i = from; i < to; i++) {
+            manager.run(new AddTaskCommand(registry, new Task("Task " + i, Priority.values()[i % 3])));
+            if (i % 4 == 0) {
+                manager.run(new ChangeStatusCommand(registry, "Task " + i, Status.DONE));
+            }
+            if (i % 5 == 0) {
+                manager.run(new RemoveTaskCommand(registry, "Task " + (i / 2)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A follower should copy the primary, keep up with it and resume after a disconnect")
+    void testFollowAndResume() throws Exception {
+        TaskRegistry registry = new TaskRegistry();
+        try (CommandJournal journal = CommandJournal.open(dir.resolve("tasks.journal"));
+             ReplicationPrimary primary = ReplicationPrimary.start(registry, journal,
+                     new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            TaskManager manager = new TaskManager(registry, journal);
+            runSome(manager, registry, 0, 50);
+
+            try (ReplicationFollower follower = ReplicationFollower.start(primary.localAddress(), new TaskRegistry())) {
+                assertTrue(follower.awaitSequence(journal.lastSequence(), TIMEOUT));
+                runSome(manager, registry, 50, 100);
+                assertTrue(follower.awaitSequence(journal.lastSequence(), TIMEOUT));
+                assertEquals(entries(registry), entries(follower.registry()));
+
+                primary.disconnectFollowers();
+                runSome(manager, registry, 100, 150);
+                assertTrue(follower.awaitSequence(journal.lastSequence(), TIMEOUT));
+                assertEquals(entries(registry), entries(follower.registry()));
+                assertEquals(1, primary.fullCopiesSent(), "Reconnecting should resume, not copy again");
+
+                long deadline = System.nanoTime() + TIMEOUT.toNanos();
+                while (primary.acknowledgedSequence() < journal.lastSequence() && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertEquals(journal.lastSequence(), primary.acknowledgedSequence());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A follower behind a truncated journal should get a full copy over a Unix domain socket")
+    void testFullCopyAfterTruncation() throws Exception {
+        UnixDomainSocketAddress address = UnixDomainSocketAddress.of(dir.resolve("primary.sock"));
+        TaskRegistry registry = new TaskRegistry();
+        try (CommandJournal journal = CommandJournal.open(dir.resolve("tasks.journal"))) {
+            TaskManager manager = new TaskManager(registry, journal);
+            ReplicationPrimary primary = ReplicationPrimary.start(registry, journal, address);
+            try (ReplicationFollower follower = ReplicationFollower.start(address, new TaskRegistry())) {
+                runSome(manager, registry, 0, 50);
+                assertTrue(follower.awaitSequence(journal.lastSequence(), TIMEOUT));
+                primary.close();
+
+                runSome(manager, registry, 50, 100);
+                journal.truncateThrough(journal.lastSequence());
+                primary = ReplicationPrimary.start(registry, journal, address);
+                assertTrue(follower.awaitSequence(journal.lastSequence(), TIMEOUT));
+                assertEquals(entries(registry), entries(follower.registry()));
+                assertEquals(1, primary.fullCopiesSent());
+            } finally {
+                primary.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the request ID window.
+ */
+class RequestWindowTest {
+
+    @Test
+    @DisplayName("The window should remember exactly the most recent IDs")
+    void testEviction() {
+        RequestWindow window = new RequestWindow(64, 2);
+        Random random = new Random(7);
+        ArrayDeque<Long> recent = new ArrayDeque<>();
+        Set<Long> remembered = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            long id = random.nextInt(200) + 1;
+            assertEquals(remembered.contains(id), window.contains(0, id), "ID " + id + " at step " + i);
+            if (!remembered.contains(id)) {
+                window.add(0, id);
+                recent.addLast(id);
+                remembered.add(id);
+                if (recent.size() > 64) {
+                    remembered.remove(recent.removeFirst());
+                }
+            }
+        }
+        assertFalse(window.contains(1, recent.getLast()), "Stripes should not share IDs");
+    }
+
+    @Test
+    @DisplayName("The window should be counted over all stripes, not split between them")
+    void testSharedWindow() {
+        RequestWindow window = new RequestWindow(100, 64);
+        for (long id = 1; id <= 100; id++) {
+            window.add(0, id);
+        }
+        for (long id = 1; id <= 100; id++) {
+            assertTrue(window.contains(0, id), "A hot stripe should hold the whole window: " + id);
+        }
+        for (long id = 101; id <= 150; id++) {
+            window.add(1, id);
+        }
+        assertFalse(window.contains(0, 50), "IDs on other stripes should push old ones out");
+        assertTrue(window.contains(0, 51));
+        window.add(0, 151);
+        assertTrue(window.contains(0, 151));
+        assertFalse(window.contains(0, 51));
+        assertTrue(window.contains(1, 101));
+    }
+
+    @Test
+    @DisplayName("Sequential IDs should all be found until they leave the window")
+    void testSequentialIds() {
+        RequestWindow window = new RequestWindow(1 << 16, 1);
+        for (long id = 1; id <= 1 << 17; id++) {
+            window.add(0, id);
+        }
+        assertFalse(window.contains(0, 1));
+        assertFalse(window.contains(0, 1 << 16));
+        assertTrue(window.contains(0, (1 << 16) + 1));
+        assertTrue(window.contains(0, 1 << 17));
+    }
+}
@@ -0,0 +1,142 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the priority-ordered scheduling view of the registry.
+ */
+class SchedulingQueueTest {
+    private TaskRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TaskRegistry();
+        // Build the queue first so arrival order is tracked for every task below
+        assertTrue(registry.peekNext().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Next task should be the oldest at the highest priority")
+    void testOrder() {
+        registry.add(new Task("Low", Priority.LOW));
+        registry.add(new Task("High 1", Priority.HIGH));
+        registry.add(new Task("Medium", Priority.MEDIUM));
+        registry.add(new Task("High 2", Priority.HIGH));
+
+        assertEquals(Optional.of(new Task("High 1", Priority.HIGH)), registry.peekNext());
+        assertEquals(List.of(
+                new Task("High 1", Priority.HIGH),
+                new Task("High 2", Priority.HIGH),
+                new Task("Medium", Priority.MEDIUM)), registry.topK(3));
+    }
+
+    @Test
+    @DisplayName("pollNext should claim tasks in order and leave them in the registry")
+    void testPoll() {
+        TaskManager manager = new TaskManager(registry);
+        registry.add(new Task("Low", Priority.LOW));
+        registry.add(new Task("High", Priority.HIGH));
+
+        assertEquals(Optional.of(new Task("High", Priority.HIGH)), manager.pollNext());
+        assertEquals(Optional.of(new Task("High", Priority.HIGH)), registry.get("High"),
+                "Polled task should stay in the registry");
+        assertEquals(Optional.of(Status.IN_PROGRESS), registry.getStatus("High"));
+        assertEquals(Optional.of(new Task("Low", Priority.LOW)), manager.pollNext());
+        assertTrue(manager.pollNext().isEmpty());
+        assertEquals(2, manager.metrics().getExecutions(), "Each claim should run as a command");
+    }
+
+    @Test
+    @DisplayName("A task moved back to TODO should be queued again")
+    void testRequeue() {
+        TaskManager manager = new TaskManager(registry);
+        registry.add(new Task("Task", Priority.MEDIUM));
+        manager.pollNext();
+        assertTrue(registry.peekNext().isEmpty());
+
+        registry.add(new Task("Task", Priority.HIGH));
+        assertTrue(registry.peekNext().isEmpty(), "A priority change should not requeue a claimed task");
+        registry.setStatus("Task", Status.TODO);
+        assertEquals(Optional.of(new Task("Task", Priority.HIGH)), manager.pollNext());
+    }
+
+    @Test
+    @DisplayName("Claims should be journaled, so replay does not hand tasks out again")
+    void testPollReplay(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("tasks.journal");
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            TaskManager manager = new TaskManager(registry, journal);
+            manager.run(new AddTaskCommand(registry, new Task("Task", Priority.HIGH)));
+            assertTrue(manager.pollNext().isPresent());
+        }
+
+        TaskRegistry restored = new TaskRegistry();
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            assertEquals(2, journal.replay(restored));
+        }
+        assertEquals(Optional.of(Status.IN_PROGRESS), restored.getStatus("Task"));
+        assertTrue(restored.peekNext().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Queue should follow priority updates and removals")
+    void testFollowsUpdates() {
+        registry.add(new Task("Task 1", Priority.MEDIUM));
+        registry.add(new Task("Task 2", Priority.MEDIUM));
+        registry.add(new Task("Task 3", Priority.LOW));
+
+        new UpdateTaskCommand(registry, "Task 3", Priority.HIGH).execute();
+        new UpdateTaskCommand(registry, "Task 1", Priority.MEDIUM).execute();
+        registry.remove("Task 2");
+
+        assertEquals(List.of(new Task("Task 3", Priority.HIGH), new Task("Task 1", Priority.MEDIUM)),
+                registry.topK(10));
+    }
+
+    @Test
+    @DisplayName("Concurrent workers should each poll a distinct task")
+    void testConcurrentPoll() throws Exception {
+        for (int i = 0; i < 1_000; i++) {
+            registry.add(new Task("Task " + i, Priority.values()[i % 3]));
+        }
+        TaskManager manager = new TaskManager(registry);
+        Set<String> polled = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    Optional<Task> next;
+                    while ((next = manager.pollNext()).isPresent()) {
+                        assertTrue(polled.add(next.get().name()), "Task handed out twice: " + next.get());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1_000, polled.size());
+        assertEquals(1_000, registry.countByStatus(Status.IN_PROGRESS));
+    }
+}
@@ -0,0 +1,156 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the hash-sharded registry.
+ */
+class ShardedTaskRegistryTest {
+    private ShardedTaskRegistry sharded;
+
+    @BeforeEach
+    void setUp() {
+        sharded = new ShardedTaskRegistry(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sharded.close();
+    }
+
+    @Test
+    @DisplayName("Commands should run on the shard owning their task")
+    void testRouting() {
+        for (int i = 0; i < 100; i++) {
+            String name = "Task " + i;
+            sharded.run(new AddTaskCommand(sharded.registryFor(name), new Task(name, Priority.LOW)));
+        }
+        sharded.run(new UpdateTaskCommand(sharded.registryFor("Task 7"), "Task 7", Priority.HIGH));
+        sharded.run(new ChangeStatusCommand(sharded.registryFor("Task 8"), "Task 8", Status.DONE));
+
+        assertEquals(Optional.of(new Task("Task 7", Priority.HIGH)), sharded.get("Task 7"));
+        assertEquals(Optional.of(Status.DONE), sharded.getStatus("Task 8"));
+        assertEquals(100, sharded.size());
+        assertEquals(99, sharded.countByPriority(Priority.LOW));
+        assertEquals(1, sharded.countByStatus(Status.DONE));
+
+        Set<TaskRegistry> used = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            used.add(sharded.registryFor("Task " + i));
+        }
+        assertEquals(4, used.size(), "Names should spread over every shard");
+    }
+
+    @Test
+    @DisplayName("getAll should merge every shard")
+    void testGetAll() {
+        for (int i = 0; i < 1000; i++) {
+            String name = "Task " + i;
+            sharded.submit(new AddTaskCommand(sharded.registryFor(name), new Task(name, Priority.MEDIUM)));
+        }
+        sharded.run(new RemoveTaskCommand(sharded.registryFor("Task 0"), "Task 0"));
+
+        assertEquals(999, sharded.getAll().size(), "getAll should see every command submitted before it");
+        assertFalse(sharded.getAll().containsKey("Task 0"));
+    }
+
+    @Test
+    @DisplayName("submitAll should fan a batch out and report results in input order")
+    void testSubmitAll() throws Exception {
+        List<Command> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String name = "Task " + (i % 50);
+            batch.add(new AddTaskCommand(sharded.registryFor(name), new Task(name, Priority.values()[i % 3])));
+        }
+        batch.add(new ChangeStatusCommand(sharded.registryFor("Missing"), "Missing", Status.DONE));
+
+        List<CommandResult> results = sharded.submitAll(batch).get(10, TimeUnit.SECONDS);
+
+        assertEquals(batch.size(), results.size());
+        for (int i = 0; i < batch.size(); i++) {
+            assertSame(batch.get(i), results.get(i).command());
+        }
+        assertFalse(results.get(200).succeeded());
+        // The last command for each name wins, as it would on one registry
+        for (int n = 0; n < 50; n++) {
+            assertEquals(Priority.values()[(150 + n) % 3], sharded.get("Task " + n).get().priority());
+        }
+    }
+
+    @Test
+    @DisplayName("A failing command should fail its future and run should rethrow it")
+    void testFailure() {
+        CompletableFuture<Void> future =
+                sharded.submit(new ChangeStatusCommand(sharded.registryFor("Missing"), "Missing", Status.DONE));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TaskNotFoundException.class, e.getCause());
+        assertThrows(TaskNotFoundException.class,
+                () -> sharded.run(new ChangeStatusCommand(sharded.registryFor("Missing"), "Missing", Status.DONE)));
+    }
+
+    @Test
+    @DisplayName("Producers on many threads should all have their commands applied")
+    void testManyProducers() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < 8; p++) {
+            int id = p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    String name = "P" + id + "-" + i;
+                    sharded.run(new AddTaskCommand(sharded.registryFor(name), new Task(name, Priority.LOW)));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8000, sharded.size());
+        assertEquals(8000, sharded.metrics().stream().mapToLong(CommandMetrics::getExecutions).sum());
+    }
+
+    @Test
+    @DisplayName("A closed registry should reject new work")
+    void testClose() {
+        sharded.close();
+
+        assertThrows(IllegalStateException.class,
+                () -> sharded.submit(new RemoveTaskCommand(sharded.registryFor("Task"), "Task")));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedTaskRegistry(0));
+    }
+
+    @Test
+    @DisplayName("Reads racing close should be rejected like commands are")
+    void testCloseRace() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            ShardedTaskRegistry racing = new ShardedTaskRegistry(4);
+            CompletableFuture<RuntimeException> reader = CompletableFuture.supplyAsync(() -> {
+                while (true) {
+                    try {
+                        racing.getAll();
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }
+            });
+            racing.close();
+            assertInstanceOf(IllegalStateException.class, reader.get(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for bulk CSV and JSON-lines import and export.
+ */
+class TaskBulkIOTest {
+
+    @TempDir
+    Path dir;
+
+    private static TaskRegistry sample() {
+        TaskRegistry registry = new TaskRegistry();
+        for (int i = 0; i < 500; i++) {
+            registry.add(new Task("Task " + i, Priority.values()[i % 3]));
+            registry.setStatus("Task " + i, Status.values()[i % 3]);
+        }
+        registry.add(new Task("Comma, \"quoted\"\nand new line", Priority.HIGH));
+        registry.add(new Task("Tab\tbackslash\\ and ünïcødé ✓", Priority.LOW));
+        registry.setStatus("Tab\tbackslash\\ and ünïcødé ✓", Status.DONE);
+        registry.add(new Task("Long ".repeat(100), Priority.MEDIUM));
+        return registry;
+    }
+
+    private static Map<Task, Status> entries(TaskRegistry registry) {
+        Map<Task, Status> entries = new HashMap<>();
+        registry.forEachEntry(entries::put);
+        return entries;
+    }
+
+    @Test
+    @DisplayName("Export then import should round-trip every task and status in both formats")
+    void testRoundTrip() {
+        TaskRegistry registry = sample();
+        for (TaskBulkIO.Format format : TaskBulkIO.Format.values()) {
+            Path file = dir.resolve("tasks." + format);
+            assertEquals(503, TaskBulkIO.exportTasks(registry, file, format));
+
+            // Tiny chunks force many boundaries, including a record longer than a chunk
+            TaskRegistry small = new TaskRegistry();
+            assertEquals(503, TaskBulkIO.importTasks(small, file, format, 64));
+            assertEquals(entries(registry), entries(small), format + " should round-trip in small chunks");
+
+            TaskRegistry offHeap = new TaskRegistry(new OffHeapTaskStore());
+            assertEquals(503, TaskBulkIO.importTasks(offHeap, file, format));
+            assertEquals(entries(registry), entries(offHeap), format + " should round-trip in one chunk");
+        }
+    }
+
+    @Test
+    @DisplayName("Export from a versioned store should write its snapshot")
+    void testExportVersioned() throws IOException {
+        TaskRegistry registry = new TaskRegistry(new VersionedTaskStore());
+        registry.add(new Task("Task", Priority.HIGH));
+        registry.setStatus("Task", Status.IN_PROGRESS);
+        Path file = dir.resolve("tasks.csv");
+
+        assertEquals(1, TaskBulkIO.exportTasks(registry, file, TaskBulkIO.Format.CSV));
+        assertEquals("name,priority,status\nTask,HIGH,IN_PROGRESS\n", Files.readString(file));
+    }
+
+    @Test
+    @DisplayName("Export during priority and status changes should write every task exactly once")
+    void testExportDuringWrites() throws Exception {
+        TaskRegistry registry = sample();
+        AtomicBoolean done = new AtomicBoolean();
+        CompletableFuture<Void> writes = CompletableFuture.runAsync(() -> {
+            for (int i = 0; !done.get(); i++) {
+                String name = "Task " + i % 500;
+                registry.add(new Task(name, Priority.values()[i % 3]));
+                registry.setStatus(name, Status.values()[i % 3]);
+            }
+        });
+        try {
+            for (int round = 0; round < 20; round++) {
+                Path file = dir.resolve("tasks.csv");
+                assertEquals(503, TaskBulkIO.exportTasks(registry, file, TaskBulkIO.Format.CSV));
+                TaskRegistry imported = new TaskRegistry();
+                TaskBulkIO.importTasks(imported, file, TaskBulkIO.Format.CSV);
+                assertEquals(registry.getAll().keySet(), imported.getAll().keySet());
+            }
+        } finally {
+            done.set(true);
+            writes.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("Later records should win and a missing status should keep the current one")
+    void testImportMerges() throws IOException {
+        TaskRegistry registry = new TaskRegistry();
+        registry.add(new Task("Kept", Priority.LOW));
+        registry.setStatus("Kept", Status.DONE);
+        Path csv = dir.resolve("tasks.csv");
+        Files.writeString(csv, "\uFEFFName,Priority\r\nKept,high\r\nNew,LOW\r\n\r\nNew,MEDIUM");
+
+        assertEquals(3, TaskBulkIO.importTasks(registry, csv, TaskBulkIO.Format.CSV));
+        assertEquals(Optional.of(new Task("Kept", Priority.HIGH)), registry.get("Kept"));
+        assertEquals(Optional.of(Status.DONE), registry.getStatus("Kept"));
+        assertEquals(Optional.of(new Task("New", Priority.MEDIUM)), registry.get("New"));
+        assertEquals(Optional.of(Status.TODO), registry.getStatus("New"));
+
+        Path jsonl = dir.resolve("tasks.jsonl");
+        Files.writeString(jsonl, "{ \"priority\": \"LOW\", \"extra\": \"x\", \"name\": \"Kept\" }\n"
+                + "{\"name\":\"\\u0041\",\"priority\":\"HIGH\",\"status\":\"DONE\"}\n");
+        assertEquals(2, TaskBulkIO.importTasks(registry, jsonl, TaskBulkIO.Format.JSON_LINES));
+        assertEquals(Optional.of(Status.DONE), registry.getStatus("Kept"));
+        assertEquals(Optional.of(Status.DONE), registry.getStatus("A"));
+    }
+
+    @Test
+    @DisplayName("Malformed input should be rejected with IllegalArgumentException")
+    void testMalformed() throws IOException {
+        Path file = dir.resolve("bad");
+        TaskRegistry registry = new TaskRegistry();
+
+        Files.writeString(file, "title,priority\nTask,LOW\n");
+        assertThrows(IllegalArgumentException.class,
+                () -> TaskBulkIO.importTasks(registry, file, TaskBulkIO.Format.CSV));
+
+        Files.writeString(file, "name,priority\nTask,URGENT\n");
+        assertThrows(IllegalArgumentException.class,
+                () -> TaskBulkIO.importTasks(registry, file, TaskBulkIO.Format.CSV));
+
+        Files.writeString(file, "name,priority\n\"Task,LOW\n");
+        assertThrows(IllegalArgumentException.class,
+                () -> TaskBulkIO.importTasks(registry, file, TaskBulkIO.Format.CSV));
+
+        Files.write(file, "{\"name\":\"Task\"}\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class,
+                () -> TaskBulkIO.importTasks(registry, file, TaskBulkIO.Format.JSON_LINES));
+        assertTrue(registry.getAll().isEmpty());
+    }
+
+    @Test
+    @DisplayName("An empty file should import nothing")
+    void testEmpty() throws IOException {
+        Path file = Files.createFile(dir.resolve("empty"));
+        TaskRegistry registry = new TaskRegistry();
+        assertEquals(0, TaskBulkIO.importTasks(registry, file, TaskBulkIO.Format.CSV));
+        assertEquals(0, TaskBulkIO.importTasks(registry, file, TaskBulkIO.Format.JSON_LINES));
+    }
+}
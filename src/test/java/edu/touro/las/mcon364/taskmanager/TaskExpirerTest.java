@@ -0,0 +1,90 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for task expiry.
+ */
+class TaskExpirerTest {
+    private final AtomicLong now = new AtomicLong();
+    private final TaskRegistry registry = new TaskRegistry();
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("Tasks should be removed in one batch once their TTL runs out")
+    void testExpire() {
+        try (TaskExpirer expirer = new TaskExpirer(registry, Duration.ofMillis(10), now::get)) {
+            for (int i = 0; i < 1000; i++) {
+                registry.add(new Task("Task " + i, Priority.LOW));
+                assertTrue(expirer.expireAfter("Task " + i, Duration.ofSeconds(i < 500 ? 1 : 60)));
+            }
+            registry.add(new Task("Forever", Priority.HIGH));
+            assertFalse(expirer.expireAfter("Missing", Duration.ofSeconds(1)));
+            assertEquals(Optional.of(Duration.ofSeconds(1)), expirer.timeToLive("Task 0"));
+
+            advance(Duration.ofMillis(999));
+            assertEquals(0, expirer.expireDue());
+            advance(Duration.ofMillis(1));
+            assertEquals(500, expirer.expireDue());
+            assertEquals(501, registry.getAll().size());
+            assertEquals(500, expirer.pending());
+
+            advance(Duration.ofMinutes(1));
+            assertEquals(500, expirer.expireDue());
+            assertEquals(Optional.of(new Task("Forever", Priority.HIGH)), registry.get("Forever"));
+            assertEquals(0, expirer.pending());
+        }
+    }
+
+    @Test
+    @DisplayName("Extending, persisting, removing or replacing a task should be respected")
+    void testRearm() {
+        try (TaskExpirer expirer = new TaskExpirer(registry, Duration.ofMillis(10), now::get)) {
+            for (String name : new String[] {"Extended", "Persisted", "Removed", "Replaced"}) {
+                registry.add(new Task(name, Priority.LOW));
+                expirer.expireAfter(name, Duration.ofSeconds(1));
+            }
+            expirer.expireAfter("Extended", Duration.ofSeconds(5));
+            assertTrue(expirer.persist("Persisted"));
+            new RemoveTaskCommand(registry, "Removed").execute();
+            registry.add(new Task("Removed", Priority.HIGH));
+            new UpdateTaskCommand(registry, "Replaced", Priority.HIGH).execute();
+
+            advance(Duration.ofSeconds(2));
+            assertEquals(1, expirer.expireDue(), "Only the updated task should expire");
+            assertEquals(Optional.empty(), registry.get("Replaced"));
+            assertTrue(registry.get("Removed").isPresent(), "A removed task's TTL should not carry over");
+            assertEquals(Optional.empty(), expirer.timeToLive("Persisted"));
+
+            advance(Duration.ofSeconds(3));
+            assertEquals(1, expirer.expireDue());
+            assertEquals(Optional.empty(), registry.get("Extended"));
+            assertEquals(2, registry.getAll().size());
+        }
+    }
+
+    @Test
+    @DisplayName("The background tick should expire tasks on its own")
+    void testBackgroundTick() throws InterruptedException {
+        try (TaskExpirer expirer = new TaskExpirer(registry, Duration.ofMillis(5))) {
+            registry.add(new Task("Reminder", Priority.HIGH));
+            expirer.expireAfter("Reminder", Duration.ofMillis(20));
+            expirer.start();
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (registry.get("Reminder").isPresent() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(Optional.empty(), registry.get("Reminder"));
+        }
+    }
+}
@@ -3,6 +3,12 @@ package edu.touro.las.mcon364.taskmanager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -79,5 +85,135 @@ class TaskManagerTest {
         assertNotNull(registry.get("Shared task"),
                 "Task should be in the shared registry instance");
     }
-}
 
+    @Test
+    @DisplayName("runAll should apply every command and report results in input order")
+    void testRunAll() {
+        List<Command> batch = List.of(
+                new AddTaskCommand(registry, new Task("Task 1", Priority.HIGH)),
+                new AddTaskCommand(registry, new Task("Task 2", Priority.LOW)),
+                new UpdateTaskCommand(registry, "Task 2", Priority.MEDIUM),
+                new RemoveTaskCommand(registry, "Task 1"));
+
+        List<CommandResult> results = manager.runAll(batch);
+
+        assertEquals(batch.size(), results.size(), "Should report one result per command");
+        for (int i = 0; i < batch.size(); i++) {
+            assertSame(batch.get(i), results.get(i).command(), "Results should follow input order");
+            assertTrue(results.get(i).succeeded(), "Command " + i + " should succeed");
+        }
+        assertTrue(registry.get("Task 1").isEmpty(), "Task 1 should be removed");
+        assertEquals(Priority.MEDIUM, registry.get("Task 2").get().priority(),
+                "Task 2 priority should be updated");
+    }
+
+    @Test
+    @DisplayName("runAll should keep per-task order across a large batch")
+    void testRunAllPreservesPerTaskOrder() {
+        List<Command> batch = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            batch.add(new AddTaskCommand(registry, new Task("Task " + (i % 100), Priority.LOW)));
+            batch.add(new UpdateTaskCommand(registry, "Task " + (i % 100), Priority.values()[i % 3]));
+        }
+
+        manager.runAll(batch);
+
+        for (int i = 900; i < 1_000; i++) {
+            assertEquals(Priority.values()[i % 3], registry.get("Task " + (i % 100)).get().priority(),
+                    "Last update for each task should win");
+        }
+    }
+
+    @Test
+    @DisplayName("runAll should record a failing command and continue with the rest")
+    void testRunAllRecordsFailures() {
+        registry.add(new Task("Task", Priority.LOW));
+        Command broken = new RemoveTaskCommand(null, "Task");
+
+        List<CommandResult> results = manager.runAll(List.of(
+                broken,
+                new UpdateTaskCommand(registry, "Task", Priority.HIGH)));
+
+        assertFalse(results.get(0).succeeded(), "Broken command should be reported as failed");
+        assertInstanceOf(NullPointerException.class, results.get(0).failure().get());
+        assertTrue(results.get(1).succeeded(), "Later command should still run");
+        assertEquals(Priority.HIGH, registry.get("Task").get().priority());
+    }
+
+    @Test
+    @DisplayName("runCoalesced should apply a burst of updates once and report a result per command")
+    void testRunCoalesced() {
+        List<Command> batch = new ArrayList<>();
+        batch.add(new AddTaskCommand(registry, new Task("Task", Priority.LOW)));
+        for (Priority priority : Priority.values()) {
+            batch.add(new UpdateTaskCommand(registry, "Task", priority));
+        }
+        batch.add(new ChangeStatusCommand(registry, "Missing", Status.DONE));
+
+        List<CommandResult> results = manager.runCoalesced(batch);
+
+        assertEquals(new Task("Task", Priority.HIGH), registry.get("Task").orElseThrow());
+        assertEquals(5, results.size());
+        for (int i = 0; i < 4; i++) {
+            assertSame(batch.get(i), results.get(i).command());
+            assertTrue(results.get(i).succeeded());
+        }
+        assertFalse(results.get(4).succeeded());
+        assertEquals(3, manager.metrics().getCoalesced());
+        assertEquals(2, manager.metrics().getExecutions(), "Only the surviving commands should execute");
+    }
+
+    @Test
+    @DisplayName("Retried commands should be applied once when deduplication is enabled")
+    void testDeduplication() {
+        manager.enableDeduplication(1000);
+        manager.run(new AddTaskCommand(registry, new Task("Retried", Priority.LOW), 1));
+        manager.run(new UpdateTaskCommand(registry, "Retried", Priority.HIGH, 2));
+        // A late retry of the add must not undo the update
+        manager.run(new AddTaskCommand(registry, new Task("Retried", Priority.LOW), 1));
+        assertEquals(Priority.HIGH, registry.get("Retried").orElseThrow().priority());
+
+        List<CommandResult> results = manager.runCoalesced(List.of(
+                new UpdateTaskCommand(registry, "Retried", Priority.MEDIUM, 3),
+                new UpdateTaskCommand(registry, "Retried", Priority.MEDIUM, 3),
+                new UpdateTaskCommand(registry, "Retried", Priority.LOW)));
+        assertTrue(results.stream().allMatch(CommandResult::succeeded));
+        assertEquals(Priority.LOW, registry.get("Retried").orElseThrow().priority());
+        assertEquals(2, manager.metrics().getDuplicates());
+        assertEquals(4, manager.metrics().getExecutions());
+    }
+
+    @Test
+    @DisplayName("A failed command should not be remembered, so its retry runs")
+    void testDeduplicationSkipsFailures() {
+        manager.enableDeduplication(1000);
+        assertThrows(TaskNotFoundException.class,
+                () -> manager.run(new ChangeStatusCommand(registry, "Late", Status.DONE, 7)));
+        registry.add(new Task("Late", Priority.LOW));
+        manager.run(new ChangeStatusCommand(registry, "Late", Status.DONE, 7));
+        assertEquals(Status.DONE, registry.getStatus("Late").orElseThrow());
+        assertEquals(0, manager.metrics().getDuplicates());
+    }
+
+    @Test
+    @DisplayName("Request IDs should be journaled so a retry after a restart is still skipped")
+    void testDeduplicationAfterRestart(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("tasks.journal");
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            TaskManager journaled = new TaskManager(registry, journal);
+            journaled.enableDeduplication(1000);
+            journaled.run(new AddTaskCommand(registry, new Task("Retried", Priority.LOW), 1));
+            journaled.run(new UpdateTaskCommand(registry, "Retried", Priority.HIGH, 2));
+        }
+
+        TaskRegistry restored = new TaskRegistry();
+        try (CommandJournal journal = CommandJournal.open(path)) {
+            journal.replay(restored);
+            TaskManager restarted = new TaskManager(restored, journal);
+            restarted.enableDeduplication(1000);
+            restarted.run(new AddTaskCommand(restored, new Task("Retried", Priority.LOW), 1));
+            assertEquals(Priority.HIGH, restored.get("Retried").orElseThrow().priority());
+            assertEquals(1, restarted.metrics().getDuplicates());
+        }
+    }
+}
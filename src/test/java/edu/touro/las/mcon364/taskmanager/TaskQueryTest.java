@@ -0,0 +1,113 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for registry queries.
+ */
+class TaskQueryTest {
+    private TaskRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TaskRegistry();
+        for (int i = 0; i < 1000; i++) {
+            registry.add(new Task(String.format("Task %04d", i), Priority.values()[i % 3]));
+        }
+        registry.add(new Task("Fix bug", Priority.HIGH));
+        registry.add(new Task("fix typo", Priority.LOW));
+        registry.setStatus("Fix bug", Status.IN_PROGRESS);
+        registry.setStatus("Task 0002", Status.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("Status and priority filters should select the matching tasks")
+    void testStatusAndPriority() {
+        assertEquals(Set.of(new Task("Fix bug", Priority.HIGH), new Task("Task 0002", Priority.HIGH)),
+                Set.copyOf(registry.query().status(Status.IN_PROGRESS).priority(Priority.HIGH).list()));
+        assertEquals(List.of(), registry.query().status(Status.IN_PROGRESS).priority(Priority.LOW).list());
+        assertEquals(668, registry.query().priority(Priority.MEDIUM, Priority.LOW).status(Status.TODO).list().size());
+    }
+
+    @Test
+    @DisplayName("A name prefix alone should list matches in name order, ignoring case")
+    void testPrefix() {
+        assertEquals(List.of(new Task("Fix bug", Priority.HIGH), new Task("fix typo", Priority.LOW)),
+                registry.query().namePrefix("FIX").list());
+
+        List<Task> all = registry.query().namePrefix("task ").list();
+        assertEquals(1000, all.size(), "Matches beyond one page should all be returned");
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(String.format("Task %04d", i), all.get(i).name());
+        }
+    }
+
+    @Test
+    @DisplayName("Prefix combined with other filters should give the same answer whichever index drives it")
+    void testPrefixWithFilters() {
+        // The name index does not exist yet, so the status cell is scanned
+        assertEquals(List.of(new Task("Fix bug", Priority.HIGH)),
+                registry.query().namePrefix("fix").status(Status.IN_PROGRESS).list());
+
+        registry.findByPrefix("", 1);
+        // Now the two prefix matches are fewer than the 1000 TODO tasks
+        assertEquals(List.of(new Task("fix typo", Priority.LOW)),
+                registry.query().status(Status.TODO).namePrefix("fix").list());
+        assertEquals(List.of(new Task("Task 0002", Priority.HIGH)),
+                registry.query().namePrefix("task").status(Status.IN_PROGRESS).list());
+    }
+
+    @Test
+    @DisplayName("A limit should stop the query once enough tasks are found")
+    void testLimitShortCircuits() {
+        AtomicInteger tested = new AtomicInteger();
+
+        List<Task> found = registry.query()
+                .filter(task -> tested.incrementAndGet() > 0)
+                .limit(5)
+                .list();
+
+        assertEquals(5, found.size());
+        assertEquals(5, tested.get(), "No tasks should be examined after the limit is reached");
+        assertEquals(3, registry.query().namePrefix("task 00").limit(3).list().size());
+    }
+
+    @Test
+    @DisplayName("Custom filters should combine with each other and with the indexed ones")
+    void testFilters() {
+        Set<String> names = registry.query()
+                .priority(Priority.HIGH)
+                .filter(task -> task.name().endsWith("5"))
+                .filter(task -> task.name().startsWith("Task 00"))
+                .stream()
+                .map(Task::name)
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of("Task 0005", "Task 0035", "Task 0065", "Task 0095"), names);
+    }
+
+    @Test
+    @DisplayName("count should read the index counters when no task needs testing")
+    void testCount() {
+        assertEquals(1002, registry.query().count());
+        assertEquals(2, registry.query().status(Status.IN_PROGRESS).count());
+        assertEquals(10, registry.query().limit(10).count());
+        assertEquals(2, registry.query().namePrefix("fix").count());
+        assertEquals(1, registry.query().filter(task -> task.name().equals("Task 0999")).count());
+    }
+
+    @Test
+    @DisplayName("A negative limit should be rejected")
+    void testNegativeLimit() {
+        assertThrows(IllegalArgumentException.class, () -> registry.query().limit(-1));
+    }
+}
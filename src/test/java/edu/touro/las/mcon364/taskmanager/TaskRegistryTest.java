@@ -4,7 +4,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -90,5 +98,184 @@ class TaskRegistryTest {
     void testGetAllEmpty() {
         assertTrue(registry.getAll().isEmpty(), "Empty registry should return empty map");
     }
-}
 
+    @Test
+    @DisplayName("getAll should return a copy that is not affected by later writes")
+    void testGetAllIsSnapshot() {
+        registry.add(new Task("Task 1", Priority.HIGH));
+
+        Map<String, Task> all = registry.getAll();
+        registry.add(new Task("Task 2", Priority.LOW));
+        registry.remove("Task 1");
+
+        assertEquals(1, all.size(), "Earlier getAll result should not change");
+        assertTrue(all.containsKey("Task 1"), "Earlier getAll result should still contain Task 1");
+        assertThrows(UnsupportedOperationException.class,
+                () -> all.put("Task 3", new Task("Task 3", Priority.LOW)),
+                "getAll result should be read-only");
+    }
+
+    @Test
+    @DisplayName("Concurrent commands on distinct tasks should all be applied")
+    void testConcurrentCommands() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                futures.add(pool.submit(() -> {
+                    TaskManager manager = new TaskManager(registry);
+                    for (int i = 0; i < perThread; i++) {
+                        String name = "T" + id + "-" + i;
+                        manager.run(new AddTaskCommand(registry, new Task(name, Priority.LOW)));
+                        manager.run(new UpdateTaskCommand(registry, name, Priority.HIGH));
+                        if (i % 2 == 0) {
+                            manager.run(new RemoveTaskCommand(registry, name));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<String, Task> all = registry.getAll();
+        assertEquals(threads * perThread / 2, all.size(), "Every odd-numbered task should remain");
+        assertTrue(all.values().stream().allMatch(t -> t.priority() == Priority.HIGH),
+                "Every remaining task should carry its update");
+    }
+
+    @Test
+    @DisplayName("getAll should be safe to call while other threads write")
+    void testGetAllDuringWrites() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> writer = pool.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    registry.add(new Task("Task " + (i % 500), Priority.MEDIUM));
+                    registry.remove("Task " + ((i + 250) % 500));
+                }
+            });
+            while (!writer.isDone()) {
+                assertDoesNotThrow(() -> {
+                    for (Task task : registry.getAll().values()) {
+                        assertNotNull(task.name());
+                    }
+                }, "Iterating getAll should never throw " + ConcurrentModificationException.class.getSimpleName());
+            }
+            writer.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Priority index should track adds, replacements and removals")
+    void testPriorityIndex() {
+        registry.add(new Task("Task 1", Priority.HIGH));
+        registry.add(new Task("Task 2", Priority.HIGH));
+        registry.add(new Task("Task 3", Priority.LOW));
+
+        assertEquals(2, registry.countByPriority(Priority.HIGH));
+        assertEquals(1, registry.countByPriority(Priority.LOW));
+        assertEquals(0, registry.countByPriority(Priority.MEDIUM));
+
+        registry.add(new Task("Task 1", Priority.MEDIUM));
+        registry.remove("Task 3");
+
+        assertEquals(List.of(new Task("Task 2", Priority.HIGH)), registry.getByPriority(Priority.HIGH));
+        assertEquals(List.of(new Task("Task 1", Priority.MEDIUM)), registry.getByPriority(Priority.MEDIUM));
+        assertTrue(registry.getByPriority(Priority.LOW).isEmpty(), "Removed task should leave the index");
+    }
+
+    @Test
+    @DisplayName("UpdateTaskCommand should move the task between priority buckets")
+    void testPriorityIndexFollowsUpdate() {
+        registry.add(new Task("Task", Priority.LOW));
+
+        new UpdateTaskCommand(registry, "Task", Priority.HIGH).execute();
+
+        assertEquals(0, registry.countByPriority(Priority.LOW));
+        assertEquals(1, registry.countByPriority(Priority.HIGH));
+    }
+
+    @Test
+    @DisplayName("getTasksByPriority should group every task under its priority")
+    void testGetTasksByPriority() {
+        registry.add(new Task("Task 1", Priority.HIGH));
+        registry.add(new Task("Task 2", Priority.LOW));
+
+        Map<Priority, List<Task>> grouped = registry.getTasksByPriority();
+
+        assertEquals(List.of(new Task("Task 1", Priority.HIGH)), grouped.get(Priority.HIGH));
+        assertEquals(List.of(new Task("Task 2", Priority.LOW)), grouped.get(Priority.LOW));
+        assertEquals(List.of(), grouped.get(Priority.MEDIUM));
+    }
+
+    @Test
+    @DisplayName("Status counters should follow status changes, priority changes and removals")
+    void testStatusIndex() {
+        registry.add(new Task("Task 1", Priority.HIGH));
+        registry.add(new Task("Task 2", Priority.HIGH));
+        registry.add(new Task("Task 3", Priority.LOW));
+        assertEquals(3, registry.countByStatus(Status.TODO));
+
+        registry.setStatus("Task 1", Status.IN_PROGRESS);
+        registry.setStatus("Task 3", Status.IN_PROGRESS);
+        assertEquals(1, registry.countByStatus(Status.TODO));
+        assertEquals(2, registry.countByStatus(Status.IN_PROGRESS));
+        assertEquals(List.of(new Task("Task 1", Priority.HIGH)),
+                registry.getByStatusAndPriority(Status.IN_PROGRESS, Priority.HIGH));
+
+        new UpdateTaskCommand(registry, "Task 3", Priority.HIGH).execute();
+        assertEquals(2, registry.countByStatusAndPriority(Status.IN_PROGRESS, Priority.HIGH));
+        assertEquals(3, registry.countByPriority(Priority.HIGH));
+
+        registry.remove("Task 1");
+        assertEquals(List.of(new Task("Task 3", Priority.HIGH)), registry.getByStatus(Status.IN_PROGRESS));
+        assertEquals(Optional.empty(), registry.getStatus("Task 1"));
+        assertEquals(Optional.empty(), registry.setStatus("Task 1", Status.DONE));
+        assertEquals(0, registry.countByStatus(Status.DONE));
+    }
+
+    @Test
+    @DisplayName("snapshot should need a versioned store and then freeze the registry's contents")
+    void testSnapshot() {
+        assertThrows(IllegalStateException.class, registry::snapshot);
+
+        TaskRegistry versioned = new TaskRegistry(new VersionedTaskStore());
+        versioned.add(new Task("Task", Priority.LOW));
+        TaskSnapshot snapshot = versioned.snapshot();
+        new UpdateTaskCommand(versioned, "Task", Priority.HIGH).execute();
+
+        assertEquals(Optional.of(new Task("Task", Priority.LOW)), snapshot.get("Task"));
+        assertEquals(Map.of("Task", new Task("Task", Priority.HIGH)), versioned.getAll());
+    }
+
+    @Test
+    @DisplayName("addAll should add a batch as add would, with later repeats winning and statuses kept")
+    void testAddAll() {
+        registry.add(new Task("Task 0", Priority.LOW));
+        registry.setStatus("Task 0", Status.DONE);
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add(new Task("Task " + i, Priority.values()[i % 3]));
+        }
+        batch.add(new Task("Task 1", Priority.HIGH));
+
+        TaskRegistry compact = new TaskRegistry(new OpenAddressingTaskStore());
+        for (TaskRegistry target : List.of(registry, compact)) {
+            target.addAll(batch);
+            assertEquals(1000, target.getAll().size());
+            assertEquals(Optional.of(new Task("Task 1", Priority.HIGH)), target.get("Task 1"));
+            assertEquals(334, target.countByPriority(Priority.HIGH));
+        }
+        assertEquals(Optional.of(Status.DONE), registry.getStatus("Task 0"));
+        assertEquals(1, registry.countByStatus(Status.DONE));
+    }
+}
@@ -0,0 +1,82 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the hierarchical timing wheel.
+ */
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("Timers at every level should fall due exactly on their deadline tick")
+    void testExactDeadlines() {
+        TimingWheel wheel = new TimingWheel(0);
+        Random random = new Random(42);
+        Map<String, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            // Spread across levels: up to 64, 4096, 262144 and beyond
+            long deadline = 1 + (long) (Math.pow(2, random.nextDouble() * 20));
+            deadlines.put("T" + i, deadline);
+            wheel.schedule("T" + i, deadline);
+        }
+        List<TimingWheel.Timer> due = new ArrayList<>();
+        long tick = 0;
+        while (wheel.size() > 0) {
+            tick += 1 + random.nextInt(100);
+            due.clear();
+            long before = wheel.currentTick();
+            wheel.advance(tick, due);
+            for (TimingWheel.Timer timer : due) {
+                assertTrue(timer.deadline > before && timer.deadline <= tick,
+                        timer.name + " due at " + timer.deadline + " fired in (" + before + ", " + tick + "]");
+                assertTrue(wheel.expire(timer));
+                assertEquals(timer.deadline, deadlines.remove(timer.name));
+            }
+        }
+        assertTrue(deadlines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Cancelled and replaced timers should not expire")
+    void testCancelAndReplace() {
+        TimingWheel wheel = new TimingWheel(100);
+        wheel.schedule("Cancelled", 150);
+        wheel.schedule("Replaced", 150);
+        wheel.schedule("Replaced", 5000);
+        wheel.schedule("Past", 10);
+        assertTrue(wheel.cancel("Cancelled"));
+        assertFalse(wheel.cancel("Cancelled"));
+
+        List<TimingWheel.Timer> due = new ArrayList<>();
+        wheel.advance(200, due);
+        assertEquals(List.of("Past"), due.stream().map(timer -> timer.name).toList());
+
+        wheel.advance(5000, due);
+        assertEquals(5000, due.get(1).deadline);
+        wheel.schedule("Replaced", 6000);
+        assertFalse(wheel.expire(due.get(1)), "A timer re-armed after falling due should be refused");
+        assertEquals(6000, wheel.deadline("Replaced"));
+    }
+
+    @Test
+    @DisplayName("Deadlines beyond the wheel's range should be parked and still fire on time")
+    void testFarDeadline() {
+        TimingWheel wheel = new TimingWheel(0);
+        long far = (1L << 30) + 12345;
+        wheel.schedule("Far", far);
+        List<TimingWheel.Timer> due = new ArrayList<>();
+        wheel.advance(far - 1, due);
+        assertTrue(due.isEmpty());
+        wheel.advance(far, due);
+        assertEquals(1, due.size());
+    }
+}
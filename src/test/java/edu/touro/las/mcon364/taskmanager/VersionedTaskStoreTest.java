@@ -0,0 +1,143 @@
+package edu.touro.las.mcon364.taskmanager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the versioned task store and its snapshots.
+ */
+class VersionedTaskStoreTest {
+
+    @Test
+    @DisplayName("put, get and remove should follow the TaskStore contract")
+    void testContract() {
+        VersionedTaskStore store = new VersionedTaskStore();
+
+        assertNull(store.put(new Task("Task", Priority.LOW)));
+        assertEquals(new Task("Task", Priority.LOW), store.put(new Task("Task", Priority.HIGH)));
+        assertEquals(new Task("Task", Priority.HIGH), store.get("Task"));
+        assertEquals(1, store.size());
+
+        assertEquals(new Task("Task", Priority.HIGH), store.remove("Task"));
+        assertNull(store.get("Task"));
+        assertNull(store.remove("Task"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Status should start at TODO, survive priority changes and go with the task")
+    void testStatus() {
+        VersionedTaskStore store = new VersionedTaskStore();
+
+        assertNull(store.setStatus("Task", Status.DONE));
+        store.put(new Task("Task", Priority.LOW));
+        assertEquals(Status.TODO, store.setStatus("Task", Status.IN_PROGRESS));
+        store.put(new Task("Task", Priority.HIGH));
+        assertEquals(Status.IN_PROGRESS, store.getStatus("Task"));
+        store.remove("Task");
+        store.put(new Task("Task", Priority.HIGH));
+        assertEquals(Status.TODO, store.getStatus("Task"));
+    }
+
+    @Test
+    @DisplayName("Random operations, including names with equal hash codes, should match a HashMap model")
+    void testAgainstModel() {
+        VersionedTaskStore store = new VersionedTaskStore();
+        Map<String, Task> model = new HashMap<>();
+        Random random = new Random(17);
+        // "Aa" and "BB" share a hash code, so every combination of them collides
+        String[] collisions = {"AaAa", "AaBB", "BBAa", "BBBB"};
+
+        for (int i = 0; i < 100_000; i++) {
+            String name = random.nextInt(10) == 0
+                    ? collisions[random.nextInt(collisions.length)]
+                    : "task-" + random.nextInt(5_000);
+            if (random.nextInt(3) > 0) {
+                Task task = new Task(name, Priority.values()[random.nextInt(3)]);
+                assertEquals(model.put(name, task), store.put(task));
+            } else {
+                assertEquals(model.remove(name), store.remove(name));
+            }
+            assertEquals(model.size(), store.size());
+        }
+
+        model.forEach((name, task) -> assertEquals(task, store.get(name)));
+        assertEquals(model, store.snapshot().toMap());
+        assertEquals(model.size(), store.snapshot().stream().count());
+    }
+
+    @Test
+    @DisplayName("A snapshot should not see later writes and versions should count writes")
+    void testSnapshotIsolation() {
+        VersionedTaskStore store = new VersionedTaskStore();
+        store.put(new Task("Task 1", Priority.LOW));
+        store.put(new Task("Task 2", Priority.LOW));
+
+        TaskSnapshot before = store.snapshot();
+        store.put(new Task("Task 1", Priority.HIGH));
+        store.setStatus("Task 1", Status.DONE);
+        store.remove("Task 2");
+        store.put(new Task("Task 3", Priority.MEDIUM));
+
+        assertEquals(2, before.version());
+        assertEquals(Map.of("Task 1", new Task("Task 1", Priority.LOW), "Task 2", new Task("Task 2", Priority.LOW)),
+                before.toMap());
+        assertEquals(Optional.of(Status.TODO), before.getStatus("Task 1"));
+
+        TaskSnapshot after = store.snapshot();
+        assertEquals(6, after.version());
+        assertEquals(Optional.of(Status.DONE), after.getStatus("Task 1"));
+        assertTrue(after.get("Task 2").isEmpty());
+        assertSame(after, store.snapshot(), "Without writes the snapshot should be reused");
+    }
+
+    @Test
+    @DisplayName("Snapshots taken while writers run should each be internally consistent")
+    void testConcurrentSnapshots() throws Exception {
+        VersionedTaskStore store = new VersionedTaskStore();
+        TaskRegistry registry = new TaskRegistry(store);
+        int writers = 4;
+        int perWriter = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int id = w;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        registry.add(new Task("W" + id + "-" + i, Priority.LOW));
+                    }
+                }));
+            }
+            long lastVersion = -1;
+            while (!futures.stream().allMatch(Future::isDone)) {
+                TaskSnapshot snapshot = registry.snapshot();
+                // Every write so far is an insert, so the version is exactly the size
+                assertEquals(snapshot.version(), snapshot.size());
+                assertEquals(snapshot.size(), snapshot.stream().count());
+                assertTrue(snapshot.version() >= lastVersion, "Versions should never go backwards");
+                lastVersion = snapshot.version();
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(writers * perWriter, registry.snapshot().size());
+        assertEquals(writers * perWriter, registry.getAll().size());
+    }
+}